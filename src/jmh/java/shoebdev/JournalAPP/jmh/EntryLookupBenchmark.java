@@ -0,0 +1,90 @@
+package shoebdev.JournalAPP.jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * The in-memory entry lookups JournalEntryControllerV2 used while entries were embedded
+ * in the User document ({@code stream().filter(id)} for get/update, {@code removeIf} for
+ * delete), against a keyed lookup, which is what the owner-scoped {@code _id} queries
+ * now get from MongoDB. Both old patterns are linear in the journal size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryLookupBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int entries;
+
+    private List<JournalEntry> journal;
+    private Map<ObjectId, JournalEntry> byId;
+    private ObjectId[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        journal = new ArrayList<>(entries);
+        byId = new HashMap<>();
+        ids = new ObjectId[entries];
+        for (int i = 0; i < entries; i++) {
+            JournalEntry entry = new JournalEntry();
+            entry.setId(new ObjectId());
+            entry.setTitle("Entry " + i);
+            journal.add(entry);
+            byId.put(entry.getId(), entry);
+            ids[i] = entry.getId();
+        }
+        // visit the ids in a fixed shuffled order so every run probes the same positions
+        Collections.shuffle(Arrays.asList(ids), new Random(42));
+    }
+
+    @Benchmark
+    public JournalEntry streamFilter() {
+        ObjectId id = nextId();
+        return journal.stream().filter(e -> id.equals(e.getId())).findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public boolean removeIf() {
+        ObjectId id = nextId();
+        boolean removed = journal.removeIf(e -> id.equals(e.getId()));
+        // put it back at the end so the journal keeps its size
+        journal.add(byId.get(id));
+        return removed;
+    }
+
+    @Benchmark
+    public JournalEntry keyedLookup() {
+        return byId.get(nextId());
+    }
+
+    private ObjectId nextId() {
+        next = (next + 1) % entries;
+        return ids[next];
+    }
+}
@@ -0,0 +1,115 @@
+package shoebdev.JournalAPP.jmh;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import shoebdev.JournalAPP.dto.JournalEntryPage;
+import shoebdev.JournalAPP.dto.JournalEntrySummary;
+import shoebdev.JournalAPP.dto.UserSummary;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+
+/**
+ * Jackson cost of the journal listing response (full entries and the default summary view)
+ * and of a user view, with the same ObjectMapper setup Spring MVC uses. {@code entries} is
+ * the journal size in one response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entries;
+
+    private ObjectMapper objectMapper;
+    private List<JournalEntry> journal;
+    private JournalEntryPage<JournalEntry> page;
+    private JournalEntryPage<JournalEntrySummary> summaryPage;
+    private UserSummary user;
+    private byte[] journalJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializerByType(ObjectId.class, ToStringSerializer.instance) // as JacksonConfig
+                .build();
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        journal = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            JournalEntry entry = new JournalEntry();
+            LocalDateTime date = start.plusHours(i);
+            entry.setId(new ObjectId(Date.from(date.toInstant(ZoneOffset.UTC)), i));
+            entry.setTitle("Entry " + i);
+            entry.setContent(text(random, 400));
+            entry.setDate(date);
+            entry.setOwnerId(new ObjectId());
+            journal.add(entry);
+        }
+        page = new JournalEntryPage<>(journal, "cursor");
+        summaryPage = new JournalEntryPage<>(journal.stream()
+                .map(entry -> new JournalEntrySummary(entry.getId().toHexString(), entry.getTitle(), entry.getDate(), 1L))
+                .toList(), "cursor");
+        User account = new User("benchmark.user", "$2a$10$" + text(random, 53));
+        account.setId(new ObjectId());
+        account.setRoles(Arrays.asList("USER", "ADMIN"));
+        user = UserSummary.of(account);
+        journalJson = objectMapper.writeValueAsBytes(journal);
+    }
+
+    @Benchmark
+    public byte[] serializeJournalPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public List<JournalEntry> deserializeJournal() throws Exception {
+        return objectMapper.readValue(journalJson, new TypeReference<List<JournalEntry>>() { });
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
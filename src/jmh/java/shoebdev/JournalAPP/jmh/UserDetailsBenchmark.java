@@ -0,0 +1,104 @@
+package shoebdev.JournalAPP.jmh;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
+import shoebdev.JournalAPP.repository.UserRepository;
+import shoebdev.JournalAPP.service.UserDetailsServiceImpl;
+import shoebdev.JournalAPP.service.UserService;
+import shoebdev.JournalAPP.service.UserSnapshotCache;
+
+/**
+ * {@link UserDetailsServiceImpl#loadUserByUsername} over the real UserService and user
+ * cache, with an in-memory UserRepository stub in place of MongoDB. {@code cached} is
+ * the steady state; {@code uncached} drops the cache entry first, so it measures the
+ * loader path minus the Mongo round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    private static final int USERS = 1000;
+
+    private final String[] names = new String[USERS];
+    private UserDetailsServiceImpl userDetailsService;
+    private UserSnapshotCache userCache;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Map<String, User> users = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            names[i] = "user-" + i;
+            User user = new User(names[i], "$2a$10$abcdefghijklmnopqrstuuJ0wz8dWXo1yqKQQg1P2M9u7N8Cq6c1e");
+            user.setId(new ObjectId());
+            user.setRoles(Arrays.asList("USER"));
+            users.put(names[i], user);
+        }
+
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[] {UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUserName" -> users.get((String) args[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        // owner backfill already done, so ensureMigrated is the no-op it is in production
+        JournalEntryOwnerBackfill ownerBackfill = new JournalEntryOwnerBackfill();
+        ReflectionTestUtils.setField(ownerBackfill, "completed", true);
+
+        userCache = new UserSnapshotCache(10_000, Duration.ofMinutes(30), new SimpleMeterRegistry());
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", repository);
+        ReflectionTestUtils.setField(userService, "ownerBackfill", ownerBackfill);
+        ReflectionTestUtils.setField(userService, "userCache", userCache);
+
+        userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userService", userService);
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        return userDetailsService.loadUserByUsername(nextName());
+    }
+
+    @Benchmark
+    public UserDetails uncached() {
+        String name = nextName();
+        userCache.invalidate(name);
+        return userDetailsService.loadUserByUsername(name);
+    }
+
+    private String nextName() {
+        next = (next + 1) % USERS;
+        return names[next];
+    }
+}
@@ -0,0 +1,140 @@
+package shoebdev.JournalAPP.admission;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.config.AdmissionProperties;
+
+/**
+ * Caps how many requests run at once, and moves the cap with MongoDB latency.
+ *
+ * Every Mongo command's duration is fed in through {@link #recordLatency}. Once per window
+ * the average is compared with a baseline (the lowest average seen, drifting slowly up so a
+ * lasting change is eventually accepted). When latency exceeds baseline x tolerance the
+ * limit shrinks in proportion, by at most half per window; while latency is normal and the
+ * limit is actually being used it grows by about its square root. Requests over the limit
+ * are refused at once by {@link ConcurrencyLimitFilter} rather than queued behind a
+ * database that is already slow.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final double MAX_DECREASE = 0.5;
+    // the limit only grows when a window came this close to it
+    private static final double GROW_UTILIZATION = 0.8;
+
+    private final AdmissionProperties.Concurrency config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final Counter rejected;
+    private volatile int limit;
+    // only read and written by adjust()
+    private double baselineNanos;
+    private ScheduledExecutorService ticker;
+
+    public AdaptiveConcurrencyLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getConcurrency();
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+        this.rejected = Counter.builder("admission.concurrency.rejected")
+                .description("Requests refused with 503 because the concurrency limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("admission.concurrency.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "concurrency-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long window = config.getWindow().toMillis();
+        ticker.scheduleAtFixedRate(this::adjust, window, window, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true if the request may run; it must then call {@link #release()} exactly once
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (config.isEnabled() && current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void recordLatency(long nanos) {
+        latencyNanos.add(nanos);
+        samples.increment();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    synchronized void adjust() {
+        long count = samples.sumThenReset();
+        long total = latencyNanos.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (count < config.getMinSamples()) {
+            return;
+        }
+        double latency = (double) total / count;
+        if (baselineNanos == 0 || latency < baselineNanos) {
+            baselineNanos = latency;
+        } else {
+            baselineNanos += (latency - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        int current = limit;
+        double gradient = Math.max(MAX_DECREASE, Math.min(1.0, baselineNanos * config.getLatencyTolerance() / latency));
+        int next = current;
+        if (gradient < 1.0) {
+            next = (int) (current * gradient);
+        } else if (peak >= current * GROW_UTILIZATION) {
+            next = current + (int) Math.max(1, Math.sqrt(current));
+        }
+        next = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), next));
+        if (next != current) {
+            limit = next;
+            log.debug("Concurrency limit {} -> {} (Mongo avg {} us, baseline {} us)",
+                    current, next, (long) latency / 1_000, (long) baselineNanos / 1_000);
+        }
+    }
+}
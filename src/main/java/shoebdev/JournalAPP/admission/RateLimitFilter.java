@@ -0,0 +1,71 @@
+package shoebdev.JournalAPP.admission;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers 429 with Retry-After once a client has spent its bucket for the request's route
+ * class. The {@link RateLimiter.Scope#IP} instance sits before authentication, so floods are
+ * refused before they reach BCrypt; the {@link RateLimiter.Scope#USER} instance sits after it
+ * and keys on the authenticated user.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimiter.Scope scope;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimiter.Scope scope) {
+        this.rateLimiter = rateLimiter;
+        this.scope = scope;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = rateLimiter.acquire(RouteClass.of(request), scope, key(request));
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(wait)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Too many requests, please slow down\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return RouteClass.isHealthCheck(request);
+    }
+
+    // one instance per scope in the same chain; each needs its own "already filtered" marker
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return super.getAlreadyFilteredAttributeName() + "." + scope;
+    }
+
+    private String key(HttpServletRequest request) {
+        if (scope == RateLimiter.Scope.IP) {
+            // behind a proxy, set server.forward-headers-strategy so this is the client, not the proxy
+            return request.getRemoteAddr();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
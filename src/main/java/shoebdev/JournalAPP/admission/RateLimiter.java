@@ -0,0 +1,73 @@
+package shoebdev.JournalAPP.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import shoebdev.JournalAPP.config.AdmissionProperties;
+
+/**
+ * Per-client rate limits: one set of {@link TokenBuckets} per route class and scope, sized
+ * from {@code journal.admission.rate-limit.*}. {@link RateLimitFilter} checks every request
+ * by client address and by authenticated user; /public/login also checks the username tried.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Scope { IP, USER }
+
+    private final boolean enabled;
+    private final Map<RouteClass, Limits> limits = new EnumMap<>(RouteClass.class);
+
+    public RateLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        AdmissionProperties.RateLimit config = properties.getRateLimit();
+        this.enabled = config.isEnabled();
+        for (RouteClass routeClass : RouteClass.values()) {
+            AdmissionProperties.Route route = config.route(routeClass);
+            limits.put(routeClass, new Limits(
+                    buckets(route.getPerIp(), config), rejected(meterRegistry, routeClass, Scope.IP),
+                    buckets(route.getPerUser(), config), rejected(meterRegistry, routeClass, Scope.USER)));
+        }
+    }
+
+    /**
+     * @return 0 if the request may go ahead, otherwise nanoseconds until {@code key} may retry
+     */
+    public long acquire(RouteClass routeClass, Scope scope, String key) {
+        if (!enabled || key == null) {
+            return 0;
+        }
+        Limits route = limits.get(routeClass);
+        long wait = (scope == Scope.IP ? route.perIp : route.perUser).tryAcquire(key);
+        if (wait > 0) {
+            (scope == Scope.IP ? route.ipRejected : route.userRejected).increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Whole seconds for a Retry-After header, never 0.
+     */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static TokenBuckets buckets(AdmissionProperties.Limit limit, AdmissionProperties.RateLimit config) {
+        return new TokenBuckets(limit.getBurst(), limit.getPerSecond(), config.getStripes(), config.getMaxKeys());
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, RouteClass routeClass, Scope scope) {
+        return Counter.builder("admission.rate.limited")
+                .description("Requests refused with 429 by a per-client rate limit")
+                .tag("route", routeClass.name().toLowerCase())
+                .tag("scope", scope.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private record Limits(TokenBuckets perIp, Counter ipRejected, TokenBuckets perUser, Counter userRejected) {
+    }
+}
@@ -0,0 +1,40 @@
+package shoebdev.JournalAPP.admission;
+
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups requests by cost for rate limiting, each with its own buckets.
+ */
+public enum RouteClass {
+
+    /** Login (JSON or form), signup and token refresh: a BCrypt hash or a user lookup per call. */
+    AUTH,
+    /** Anything that is not a read. */
+    WRITE,
+    READ;
+
+    private static final Set<String> AUTH_PATHS = Set.of(
+            "/public/login", "/public/signup", "/public/admin/signup", "/public/refresh", "/login");
+
+    public static RouteClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return READ;
+        }
+        return AUTH_PATHS.contains(path(request)) ? AUTH : WRITE;
+    }
+
+    static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Health probes are never limited, so an overloaded instance is not also reported dead.
+     */
+    static boolean isHealthCheck(HttpServletRequest request) {
+        String path = path(request);
+        return path.equals("/public/health") || path.equals("/health-check") || path.startsWith("/actuator/health");
+    }
+}
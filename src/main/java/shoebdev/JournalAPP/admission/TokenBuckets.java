@@ -0,0 +1,100 @@
+package shoebdev.JournalAPP.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by key (an IP address or a username), all with the same burst and rate.
+ *
+ * Keys are spread over lock stripes, so concurrent requests only contend when their keys
+ * hash to the same stripe. Each stripe is a small access-ordered map capped at its share of
+ * {@code maxKeys}: keys seen once (a scan from many addresses) are evicted least recently
+ * used instead of growing the table, and an evicted key starts again with a full bucket.
+ */
+public class TokenBuckets {
+
+    private final Stripe[] stripes;
+    private final double burst;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+
+    public TokenBuckets(int burst, double perSecond, int stripes, int maxKeys) {
+        this(burst, perSecond, stripes, maxKeys, System::nanoTime);
+    }
+
+    TokenBuckets(int burst, double perSecond, int stripes, int maxKeys, LongSupplier clock) {
+        if (burst < 1 || perSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs burst >= 1 and perSecond > 0");
+        }
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        int keysPerStripe = Math.max(1, maxKeys / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.burst = burst;
+        this.tokensPerNano = perSecond / 1_000_000_000.0;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from {@code key}'s bucket if there is one.
+     *
+     * @return 0 if the request may go ahead, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        synchronized (stripe) {
+            long now = clock.getAsLong();
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
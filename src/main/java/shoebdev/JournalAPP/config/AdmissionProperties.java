@@ -0,0 +1,77 @@
+package shoebdev.JournalAPP.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import shoebdev.JournalAPP.admission.RouteClass;
+
+/**
+ * Admission control under {@code journal.admission.*}: per-client token buckets
+ * ({@code RateLimiter}) and the Mongo-latency driven concurrency limit
+ * ({@code AdaptiveConcurrencyLimiter}).
+ */
+@Data
+@ConfigurationProperties(prefix = "journal.admission")
+public class AdmissionProperties {
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        // lock stripes per bucket table, rounded up to a power of two
+        private int stripes = 64;
+        // keys kept per route class and scope; the least recently used are dropped beyond this
+        private int maxKeys = 100_000;
+        // login, signup and refresh: BCrypt or a user lookup per call
+        private final Route auth = new Route(new Limit(20, 1), new Limit(10, 0.2));
+        private final Route write = new Route(new Limit(200, 40), new Limit(100, 20));
+        private final Route read = new Route(new Limit(400, 100), new Limit(200, 50));
+
+        public Route route(RouteClass routeClass) {
+            return switch (routeClass) {
+                case AUTH -> auth;
+                case WRITE -> write;
+                case READ -> read;
+            };
+        }
+    }
+
+    @Data
+    public static class Route {
+        // by client address, checked before authentication
+        private final Limit perIp;
+        // by authenticated user; for login, by the username being tried
+        private final Limit perUser;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        // requests allowed back to back after an idle period
+        private int burst;
+        // sustained rate once the burst is spent
+        private double perSecond;
+    }
+
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 100;
+        private int minLimit = 10;
+        private int maxLimit = 400;
+        // how often the limit is recomputed from the Mongo latencies seen since the last time
+        private Duration window = Duration.ofMillis(500);
+        // windows with fewer Mongo commands than this leave the limit alone
+        private int minSamples = 20;
+        // the limit shrinks once average Mongo latency exceeds this multiple of its baseline
+        private double latencyTolerance = 2.0;
+    }
+}
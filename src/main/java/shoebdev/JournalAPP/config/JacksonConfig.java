@@ -0,0 +1,22 @@
+package shoebdev.JournalAPP.config;
+
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * Writes ObjectIds as their 24-character hex string instead of Jackson's default bean view
+ * (timestamp and date), matching the ids in the DTOs and in request paths. Reading a hex
+ * string back into an ObjectId works through its String constructor.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer objectIdAsHex() {
+        return builder -> builder.serializerByType(ObjectId.class, ToStringSerializer.instance);
+    }
+}
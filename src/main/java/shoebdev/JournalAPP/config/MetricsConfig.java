@@ -0,0 +1,20 @@
+package shoebdev.JournalAPP.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enables {@code @Timed} on Spring beans. The services are annotated at class level, so each
+ * public method gets a {@code journal.service} timer tagged with class and method.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,266 @@
+package shoebdev.JournalAPP.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.Tag;
+import com.mongodb.TagSet;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.ClusterType;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.admission.AdaptiveConcurrencyLimiter;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+
+/**
+ * Applies {@link MongoClientProperties} to the auto-configured MongoClient and MongoTemplate,
+ * records how long requests wait for a pooled connection, and logs the settings in effect
+ * once the application is up.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class MongoClientConfig {
+
+    private final MongoClientProperties properties;
+
+    // the built settings, kept for the startup log; the driver does not expose them afterwards
+    private volatile MongoClientSettings effectiveSettings;
+
+    public MongoClientConfig(MongoClientProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public MongoClientSettingsBuilderCustomizer journalMongoClientSettings(MeterRegistry meterRegistry,
+                                                                          AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        MongoClientProperties.Pool pool = properties.getPool();
+        ConnectionPoolListener checkoutWait = checkoutWaitListener(meterRegistry);
+        return builder -> builder
+                .addCommandListener(commandLatencyListener(concurrencyLimiter))
+                .applyToConnectionPoolSettings(settings -> settings
+                        .minSize(pool.getMinSize())
+                        .maxSize(pool.getMaxSize())
+                        .maxWaitTime(pool.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnecting(pool.getMaxConnecting())
+                        .addConnectionPoolListener(checkoutWait))
+                .applyToSocketSettings(settings -> settings
+                        .connectTimeout((int) properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(settings -> settings
+                        .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .compressorList(compressors(properties.getCompressors()))
+                .writeConcern(writeConcern(properties.getWriteConcern().getDefaults()));
+    }
+
+    /**
+     * Runs after every other customizer (Boot's own included) and keeps a copy of the result.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public MongoClientSettingsBuilderCustomizer captureEffectiveMongoClientSettings() {
+        return builder -> effectiveSettings = builder.build();
+    }
+
+    /**
+     * User account writes default to majority so a confirmed signup or password change
+     * survives a failover; journal entry writes get their own, usually cheaper, concern.
+     */
+    @Bean
+    public WriteConcernResolver journalWriteConcernResolver() {
+        WriteConcern users = writeConcern(properties.getWriteConcern().getUsers());
+        WriteConcern entries = writeConcern(properties.getWriteConcern().getEntries());
+        return action -> {
+            Class<?> type = action.getEntityType();
+            if (User.class.equals(type)) {
+                return users;
+            }
+            if (JournalEntry.class.equals(type)) {
+                return entries;
+            }
+            return action.getDefaultWriteConcern();
+        };
+    }
+
+    @Bean
+    public ReadPreference journalReadPreference() {
+        MongoClientProperties.JournalReads reads = properties.getJournalReads();
+        List<TagSet> tagSets = new ArrayList<>();
+        for (String tagSet : reads.getTagSets()) {
+            List<Tag> tags = new ArrayList<>();
+            for (String pair : tagSet.split(",")) {
+                String[] keyValue = pair.split(":", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("journal.mongo.journal-reads.tag-sets: expected key:value, got '" + pair + "'");
+                }
+                tags.add(new Tag(keyValue[0].trim(), keyValue[1].trim()));
+            }
+            tagSets.add(new TagSet(tags));
+        }
+        String mode = reads.getReadPreference();
+        if ("primary".equalsIgnoreCase(mode)) {
+            if (!tagSets.isEmpty() || reads.getMaxStaleness() != null) {
+                throw new IllegalArgumentException("journal.mongo.journal-reads: tag sets and max staleness need a non-primary read preference");
+            }
+            return ReadPreference.primary();
+        }
+        if (reads.getMaxStaleness() != null) {
+            return ReadPreference.valueOf(mode, tagSets, reads.getMaxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return ReadPreference.valueOf(mode, tagSets);
+    }
+
+    /**
+     * Hooks the resolver into Boot's MongoTemplate rather than replacing the template bean.
+     */
+    @Bean
+    public static BeanPostProcessor mongoTemplateWriteConcernPostProcessor(ObjectProvider<WriteConcernResolver> resolver) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoTemplate template) {
+                    template.setWriteConcernResolver(resolver.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logEffectiveSettings(ApplicationReadyEvent event) {
+        MongoClientSettings settings = effectiveSettings;
+        if (settings == null) {
+            return;
+        }
+        var pool = settings.getConnectionPoolSettings();
+        log.info("Mongo client: pool min={} max={} maxWait={}ms maxIdle={}ms maxConnecting={}, connectTimeout={}ms readTimeout={}ms, "
+                        + "serverSelectionTimeout={}ms, compressors={}, writeConcern default={} users={} entries={}, journal reads={}",
+                pool.getMinSize(), pool.getMaxSize(), pool.getMaxWaitTime(TimeUnit.MILLISECONDS),
+                pool.getMaxConnectionIdleTime(TimeUnit.MILLISECONDS), pool.getMaxConnecting(),
+                settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS),
+                settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS),
+                settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS),
+                settings.getCompressorList().stream().map(MongoCompressor::getName).toList(),
+                describe(settings.getWriteConcern()),
+                properties.getWriteConcern().getUsers(), properties.getWriteConcern().getEntries(),
+                journalReadPreference());
+
+        ReadPreference reads = journalReadPreference();
+        ClusterType cluster = event.getApplicationContext().getBean(MongoClient.class).getClusterDescription().getType();
+        if (reads.isSecondaryOk() && cluster == ClusterType.STANDALONE) {
+            log.warn("journal.mongo.journal-reads.read-preference={} has no effect on a standalone server", reads.getName());
+        }
+    }
+
+    /**
+     * Feeds every command's round trip to the concurrency limiter, failures included: a
+     * command that times out is the strongest sign the database is overloaded.
+     */
+    private static CommandListener commandLatencyListener(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                concurrencyLimiter.recordLatency(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                concurrencyLimiter.recordLatency(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        };
+    }
+
+    private static ConnectionPoolListener checkoutWaitListener(MeterRegistry meterRegistry) {
+        Timer acquired = Timer.builder("mongodb.driver.pool.checkout.wait")
+                .description("Time spent waiting for a pooled Mongo connection")
+                .tag("outcome", "acquired")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Timer failed = Timer.builder("mongodb.driver.pool.checkout.wait")
+                .description("Time spent waiting for a pooled Mongo connection")
+                .tag("outcome", "failed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                acquired.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                failed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    static List<MongoCompressor> compressors(List<String> names) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String name : names) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "zstd" -> compressors.add(MongoCompressor.createZstdCompressor());
+                case "snappy" -> compressors.add(MongoCompressor.createSnappyCompressor());
+                case "zlib" -> compressors.add(MongoCompressor.createZlibCompressor());
+                case "" -> { }
+                default -> throw new IllegalArgumentException("journal.mongo.compressors: unknown compressor '" + name + "'");
+            }
+        }
+        return compressors;
+    }
+
+    static WriteConcern writeConcern(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "majority":
+                return WriteConcern.MAJORITY;
+            case "unacknowledged":
+            case "w0":
+                return WriteConcern.UNACKNOWLEDGED;
+            case "acknowledged":
+                // whatever the server's default is (majority on MongoDB 5.0+)
+                return WriteConcern.ACKNOWLEDGED;
+            case "w1":
+                return WriteConcern.W1;
+            default:
+                try {
+                    return new WriteConcern(Integer.parseInt(normalized.startsWith("w") ? normalized.substring(1) : normalized));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("journal.mongo.write-concern: unknown write concern '" + value + "'", e);
+                }
+        }
+    }
+
+    private static String describe(WriteConcern writeConcern) {
+        return writeConcern == null || writeConcern.isServerDefault() ? "server default" : writeConcern.asDocument().toJson();
+    }
+}
@@ -0,0 +1,75 @@
+package shoebdev.JournalAPP.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Mongo client tuning under {@code journal.mongo.*}. Where to connect still comes from
+ * {@code spring.data.mongodb.*}; this only covers how the client behaves once connected.
+ * Applied by {@link MongoClientConfig}.
+ */
+@Data
+@ConfigurationProperties(prefix = "journal.mongo")
+public class MongoClientProperties {
+
+    private final Pool pool = new Pool();
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    // zero means no socket read timeout, the driver default
+    private Duration readTimeout = Duration.ZERO;
+
+    private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Wire compressors in order of preference: zstd, snappy, zlib. The server picks the
+     * first one it also supports; empty turns compression off.
+     */
+    private List<String> compressors = new ArrayList<>();
+
+    private final JournalReads journalReads = new JournalReads();
+
+    private final WriteConcerns writeConcern = new WriteConcerns();
+
+    @Data
+    public static class Pool {
+        private int minSize = 0;
+        private int maxSize = 100;
+        // how long a request may wait for a free connection before failing
+        private Duration maxWait = Duration.ofMinutes(2);
+        // zero keeps idle connections forever
+        private Duration maxIdleTime = Duration.ZERO;
+        private int maxConnecting = 2;
+    }
+
+    /**
+     * Read preference for the listing, streaming and search reads behind GET /journal.
+     * Single-entry reads and every read made as part of a write stay on the primary.
+     */
+    @Data
+    public static class JournalReads {
+        // primary, primaryPreferred, secondary, secondaryPreferred or nearest
+        private String readPreference = "primary";
+        // secondaries lagging more than this are skipped; at least 90s, unset means no limit
+        private Duration maxStaleness;
+        // preferred secondaries, one tag set per element in "key:value,key:value" form, tried in order
+        private List<String> tagSets = new ArrayList<>();
+    }
+
+    /**
+     * Write concerns by kind of write: "acknowledged" (the server default), "w1", "majority",
+     * "unacknowledged" or a member count. {@code defaults} is the client default and also
+     * covers bulk imports and the migration.
+     */
+    @Data
+    public static class WriteConcerns {
+        private String defaults = "acknowledged";
+        private String users = "majority";
+        private String entries = "acknowledged";
+    }
+}
@@ -1,36 +1,72 @@
 package shoebdev.JournalAPP.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import shoebdev.JournalAPP.admission.AdaptiveConcurrencyLimiter;
+import shoebdev.JournalAPP.admission.ConcurrencyLimitFilter;
+import shoebdev.JournalAPP.admission.RateLimitFilter;
+import shoebdev.JournalAPP.admission.RateLimiter;
+import shoebdev.JournalAPP.security.CachingAuthenticationProvider;
+import shoebdev.JournalAPP.security.CredentialCache;
+import shoebdev.JournalAPP.security.PasswordHashingOverloadFilter;
+import shoebdev.JournalAPP.security.TokenAuthenticationFilter;
+import shoebdev.JournalAPP.security.TokenService;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
 public class SpringSecurity {
 
+    // reachable without authentication, also with an expired bearer token
+    private static final RequestMatcher OPEN_PATHS = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/public/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/actuator/health"));
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService, RateLimiter rateLimiter,
+                                                   AdaptiveConcurrencyLimiter concurrencyLimiter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/journal/**").authenticated()
-                .requestMatchers("/public/**").permitAll()
+                .requestMatchers(OPEN_PATHS).permitAll()
                 .requestMatchers("/user/**").authenticated()
                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(Customizer.withDefaults())
             .httpBasic(Customizer.withDefaults())
+            // bearer tokens from /public/login are checked before Basic, without a user lookup
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService, OPEN_PATHS), BasicAuthenticationFilter.class)
+            // a full BCrypt queue answers 429 instead of an auth failure or a 500
+            .addFilterBefore(new PasswordHashingOverloadFilter(), TokenAuthenticationFilter.class)
+            // admission control runs before any authentication (form login included): per-address
+            // buckets, then the concurrency limit, and per-user buckets once the user is known
+            .addFilterBefore(new ConcurrencyLimitFilter(concurrencyLimiter), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new RateLimitFilter(rateLimiter, RateLimiter.Scope.IP), ConcurrencyLimitFilter.class)
+            .addFilterAfter(new RateLimitFilter(rateLimiter, RateLimiter.Scope.USER), BasicAuthenticationFilter.class)
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             );
@@ -43,9 +79,20 @@ public class SpringSecurity {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Username/password authentication for both httpBasic and /public/login, with recently
+     * verified credentials answered from {@link CredentialCache} instead of BCrypt.
+     * Stored hashes below the current cost factor are re-hashed on a successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         UserDetailsPasswordService userDetailsPasswordService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         CredentialCache credentialCache) {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(userDetailsService);
+        dao.setPasswordEncoder(passwordEncoder);
+        dao.setUserDetailsPasswordService(userDetailsPasswordService);
+        return new CachingAuthenticationProvider(dao, credentialCache);
     }
 
 }
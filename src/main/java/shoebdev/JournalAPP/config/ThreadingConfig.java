@@ -0,0 +1,23 @@
+package shoebdev.JournalAPP.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Boot only honours {@code spring.threads.virtual.enabled} on a Java 21+ runtime and
+ * quietly keeps Tomcat's platform pool on older ones. Startup fails instead, so a deployment
+ * that asks for virtual threads never runs without them unnoticed.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    static final int VIRTUAL_THREADS_JAVA = 21;
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int java = Runtime.version().feature();
+        if (virtualThreads && java < VIRTUAL_THREADS_JAVA) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs Java " + VIRTUAL_THREADS_JAVA
+                    + " or newer, this is Java " + java);
+        }
+    }
+}
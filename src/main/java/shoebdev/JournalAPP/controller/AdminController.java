@@ -1,22 +1,36 @@
 package shoebdev.JournalAPP.controller;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import shoebdev.JournalAPP.dto.ArchiveProgress;
+import shoebdev.JournalAPP.dto.ReclaimProgress;
+import shoebdev.JournalAPP.dto.UserSummary;
 import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.security.PasswordHashingRejectedException;
+import shoebdev.JournalAPP.service.JournalEntryArchiver;
+import shoebdev.JournalAPP.service.JournalEntryReclaimer;
+import shoebdev.JournalAPP.service.JournalEntryService;
+import shoebdev.JournalAPP.service.JournalStatsService;
 import shoebdev.JournalAPP.service.UserService;
 
 @RestController
@@ -27,15 +41,37 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private JournalEntryReclaimer journalEntryReclaimer;
+
+    @Autowired
+    private JournalEntryArchiver journalEntryArchiver;
+
+    @Autowired
+    private JournalStatsService journalStatsService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Paged user listing. Only id, userName and roles are read from Mongo, never
+     * password hashes or journal data.
+     */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         try {
-            List<User> allUsers = userService.getAll();
-            if (allUsers != null && !allUsers.isEmpty()) {
-                return new ResponseEntity<>(allUsers, HttpStatus.OK);
-            } else {
-                return new ResponseEntity<>("No users found", HttpStatus.NOT_FOUND);
-            }
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            Slice<UserSummary> users = userService.findSummaries(Math.max(page, 0), pageSize);
+            Map<String, Object> response = new HashMap<>();
+            response.put("users", users.getContent());
+            response.put("page", Math.max(page, 0));
+            response.put("size", pageSize);
+            response.put("hasNext", users.hasNext());
+            return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>("Error retrieving users: " + e.getMessage(),
                                        HttpStatus.INTERNAL_SERVER_ERROR);
@@ -45,9 +81,9 @@ public class AdminController {
     @GetMapping("/users/{id}")
     public ResponseEntity<?> getUserById(@PathVariable ObjectId id) {
         try {
-            Optional<User> user = userService.findById(id);
+            Optional<UserSummary> user = userService.findSummaryById(id);
             if (user.isPresent()) {
-                return new ResponseEntity<>(user.get(), HttpStatus.OK);
+                return ETags.ok(user.get()).body(user.get());
             } else {
                 return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
             }
@@ -71,10 +107,12 @@ public class AdminController {
                     user.setPassword(userService.encodePassword(user.getPassword()));
                 }
                 userService.saveEntry(user);
-                return new ResponseEntity<>(user, HttpStatus.OK);
+                return new ResponseEntity<>(UserSummary.of(user), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>("User not found", HttpStatus.NOT_FOUND);
             }
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // 429 from PasswordHashingOverloadFilter
         } catch (Exception e) {
             return new ResponseEntity<>("Error updating user: " + e.getMessage(),
                                        HttpStatus.INTERNAL_SERVER_ERROR);
@@ -97,17 +135,88 @@ public class AdminController {
         }
     }
 
+    // exact=true runs countDocuments; the default is the O(1) metadata estimate
     @GetMapping("/users/count")
-    public ResponseEntity<?> getUserCount() {
+    public ResponseEntity<?> getUserCount(@RequestParam(defaultValue = "false") boolean exact) {
         try {
-            List<User> allUsers = userService.getAll();
-            return new ResponseEntity<>("Total users: " + allUsers.size(), HttpStatus.OK);
+            return new ResponseEntity<>("Total users: " + userService.countUsers(exact), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>("Error counting users: " + e.getMessage(),
                                        HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Entries-per-user distribution, aggregated in Mongo.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        try {
+            long totalUsers = userService.countUsers(false);
+            Document stats = journalEntryService.entriesPerUserStats();
+            List<Document> summaries = stats == null ? List.of() : stats.getList("summary", Document.class);
+            Document summary = summaries.isEmpty() ? new Document("usersWithEntries", 0).append("totalEntries", 0) : summaries.get(0);
+            summary.remove("_id");
+            long usersWithEntries = ((Number) summary.get("usersWithEntries")).longValue();
+
+            Map<String, Object> response = new HashMap<>(summary);
+            response.put("totalUsers", totalUsers);
+            response.put("usersWithoutEntries", Math.max(0, totalUsers - usersWithEntries));
+            response.put("distribution", stats == null ? List.of() : stats.getList("distribution", Document.class));
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error computing stats: " + e.getMessage(),
+                                       HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Progress of the latest orphaned-entry scan: owners checked, owners found deleted,
+     * entries removed and an estimate of the bytes freed.
+     */
+    @GetMapping("/maintenance/orphans")
+    public ResponseEntity<ReclaimProgress> getOrphanScan() {
+        return ResponseEntity.ok(journalEntryReclaimer.getProgress());
+    }
+
+    @PostMapping("/maintenance/orphans")
+    public ResponseEntity<?> startOrphanScan() {
+        if (!journalEntryReclaimer.scanNow()) {
+            return new ResponseEntity<>(journalEntryReclaimer.getProgress(), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(Map.of("success", true, "message", "Orphan scan started"), HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Progress of the latest archive run: entries moved to the archive, the hot bytes that
+     * freed, and the archived bytes before and after compression.
+     */
+    @GetMapping("/maintenance/archive")
+    public ResponseEntity<ArchiveProgress> getArchiveRun() {
+        return ResponseEntity.ok(journalEntryArchiver.getProgress());
+    }
+
+    @PostMapping("/maintenance/archive")
+    public ResponseEntity<?> startArchiveRun() {
+        if (!journalEntryArchiver.runNow()) {
+            return new ResponseEntity<>(journalEntryArchiver.getProgress(), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(Map.of("success", true, "message", "Archive run started"), HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Recomputes every user's stats document from their entries, correcting any drift in
+     * the incremental updates.
+     */
+    @PostMapping("/maintenance/stats")
+    public ResponseEntity<?> startStatsRebuild() {
+        if (!journalStatsService.rebuildAllNow()) {
+            return new ResponseEntity<>(Map.of("success", false, "message", "Stats rebuild already running"),
+                                       HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(Map.of("success", true, "message", "Stats rebuild started"), HttpStatus.ACCEPTED);
+    }
+
     @PutMapping("/users/{id}/role")
     public ResponseEntity<?> updateUserRole(@PathVariable ObjectId id, @RequestBody UserRoleUpdateRequest request) {
         try {
@@ -0,0 +1,78 @@
+package shoebdev.JournalAPP.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import shoebdev.JournalAPP.dto.JournalEntrySummary;
+import shoebdev.JournalAPP.dto.UserSummary;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Validators for journal and user reads. They are derived from ids and versions (or, for
+ * users, the few fields of the view), never from the serialized body, so Spring MVC can
+ * answer a matching If-None-Match / If-Modified-Since with 304 before Jackson runs.
+ *
+ * The ETags are weak: they identify the entry state, not the exact bytes, and Tomcat will
+ * not gzip a response that carries a strong ETag. If-None-Match compares weakly anyway.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    // fields is part of the key since each selection is a different representation
+    static ResponseEntity.BodyBuilder ok(JournalEntry entry, Collection<String> fields) {
+        String tag = entry.getId() + ":" + version(entry.getVersion()) + ":" + fields;
+        LocalDateTime modified = entry.getLastModified() != null ? entry.getLastModified() : entry.getDate();
+        return revalidate(tag, modified);
+    }
+
+    static ResponseEntity.BodyBuilder ok(UserSummary user) {
+        return revalidate(user.id() + ":" + user.userName() + ":" + user.roles() + ":" + user.lastModified(),
+                user.lastModified());
+    }
+
+    /**
+     * A page changes when any entry on it changes, is added or removed, so only an ETag is
+     * sent: no single timestamp covers a delete, and Last-Modified would then go stale.
+     */
+    static ResponseEntity.BodyBuilder okSummaries(List<JournalEntrySummary> entries, String nextCursor) {
+        StringBuilder tag = new StringBuilder(entries.size() * 32).append(nextCursor);
+        for (JournalEntrySummary entry : entries) {
+            tag.append('|').append(entry.id()).append(':').append(version(entry.version()));
+        }
+        return revalidate(tag.toString(), null);
+    }
+
+    static ResponseEntity.BodyBuilder okEntries(List<JournalEntry> entries, String nextCursor, Collection<String> fields) {
+        StringBuilder tag = new StringBuilder(entries.size() * 32).append(fields).append(nextCursor);
+        for (JournalEntry entry : entries) {
+            tag.append('|').append(entry.getId()).append(':').append(version(entry.getVersion()));
+        }
+        return revalidate(tag.toString(), null);
+    }
+
+    // no-cache: clients may keep the body but must revalidate, which is the polling case
+    private static ResponseEntity.BodyBuilder revalidate(String tag, LocalDateTime modified) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag("W/\"" + DigestUtils.md5DigestAsHex(tag.getBytes(StandardCharsets.UTF_8)) + '"')
+                .cacheControl(CacheControl.noCache());
+        if (modified != null) {
+            ok.lastModified(ZonedDateTime.of(modified, ZoneId.systemDefault()));
+        }
+        return ok;
+    }
+
+    // entries written before versions existed count as version 0
+    private static long version(Long version) {
+        return version == null ? 0 : version;
+    }
+}
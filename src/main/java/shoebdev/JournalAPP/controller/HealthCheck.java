@@ -1,15 +1,27 @@
 package shoebdev.JournalAPP.controller;
 
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HealthCheck {
 
+    // same checks as /actuator/health, including the MongoDB ping
+    @Autowired
+    private HealthEndpoint healthEndpoint;
 
     @GetMapping("/health-check")
-    public String healthCheck(){
-        return "ok Its working fine";
+    public ResponseEntity<String> healthCheck(){
+        Status status = healthEndpoint.health().getStatus();
+        if (!Status.UP.equals(status)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(status.getCode());
+        }
+        return ResponseEntity.ok("ok Its working fine");
     }
 }
@@ -3,20 +3,43 @@ package shoebdev.JournalAPP.controller;
 
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import shoebdev.JournalAPP.dto.JournalCursor;
+import shoebdev.JournalAPP.dto.JournalEntryFields;
+import shoebdev.JournalAPP.dto.JournalEntryPage;
+import shoebdev.JournalAPP.dto.JournalEntrySummary;
 import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
 import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.security.JournalUserDetails;
 import shoebdev.JournalAPP.service.JournalEntryService;
+import shoebdev.JournalAPP.service.JournalEntryWriteBehind;
+import shoebdev.JournalAPP.service.JournalImportService;
+import shoebdev.JournalAPP.service.JournalStatsService;
 import shoebdev.JournalAPP.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/journal")
@@ -28,31 +51,252 @@ public class JournalEntryControllerV2 {
      @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalImportService journalImportService;
+
+    @Autowired
+    private JournalEntryWriteBehind journalEntryWriteBehind;
+
+    @Autowired
+    private JournalStatsService journalStatsService;
+
+    @Value("${journal.export.batch-size:1000}")
+    private int exportBatchSize;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SYNC_PAGE_SIZE = 200;
+    private static final int MAX_SYNC_PAGE_SIZE = 1000;
+
 
     //private Map<String, JournalEntry> journalEntries = new HashMap<>();
 
+    /**
+     * Newest-first page of a user's journal. Pass the returned {@code nextCursor} back as
+     * {@code cursor} to fetch the following page. Entries are summaries (id, title, date)
+     * unless {@code fields} selects others, e.g. {@code fields=id,title,content}.
+     * Pages carry an ETag; a matching If-None-Match gets 304 without a body.
+     */
     @GetMapping("{userName}")
-    public ResponseEntity<List<JournalEntry>> getAll(@PathVariable String userName) {
-        // Check if user is authenticated and requesting their own data, or if it's a public read
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAuthenticated = authentication != null && authentication.isAuthenticated() &&
-                                 !authentication.getPrincipal().equals("anonymousUser");
+    public ResponseEntity<?> getAll(@PathVariable String userName,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                    @RequestParam(required = false) String fields) {
+        // Reading is public for now (you can change this to private later), so no ownership check here
+        User user = userService.findByUserName(userName);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        JournalCursor after;
+        try {
+            after = cursor == null ? null : JournalCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid cursor"));
+        }
+        Set<String> selected;
+        try {
+            selected = JournalEntryFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (selected == null) {
+            JournalEntryPage<JournalEntrySummary> page = journalEntryService.findSummaryPage(user.getId(), after, pageSize);
+            return ETags.okSummaries(page.entries(), page.nextCursor()).body(page);
+        }
+        JournalEntryPage<JournalEntry> page = journalEntryService.findPage(user.getId(), after, pageSize, selected);
+        return ETags.okEntries(page.entries(), page.nextCursor(), selected).body(new JournalEntryPage<>(
+                page.entries().stream().map(entry -> JournalEntryFields.select(entry, selected)).toList(),
+                page.nextCursor()));
+    }
 
+    /**
+     * Whole journal as newline-delimited JSON, written straight from a Mongo cursor so the
+     * heap stays flat no matter how many entries the user has.
+     * GET /journal/{userName}?stream=true
+     */
+    @GetMapping(value = "{userName}", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(@PathVariable String userName,
+                                                           @RequestParam(required = false) String cursor) {
         User user = userService.findByUserName(userName);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        // Allow reading own journal entries, or if admin
-        if (isAuthenticated) {
-            String currentUserName = authentication.getName();
-            if (currentUserName.equals(userName) || hasAdminRole(authentication)) {
-                return ResponseEntity.ok(user.getJournalEntries());
+        JournalCursor after;
+        try {
+            after = cursor == null ? null : JournalCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        ObjectId ownerId = user.getId();
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = out -> {
+            try (Stream<JournalEntry> entries = journalEntryService.streamByOwner(ownerId, after)) {
+                Iterator<JournalEntry> it = entries.iterator();
+                while (it.hasNext()) {
+                    out.write(writer.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Full-text search in one user's journal, ranked by relevance. Public like the listing.
+     * Results carry id, title, date and score unless {@code fields} selects others.
+     * GET /journal/{userName}/search?q=...&from=...&to=...&page=0&size=20
+     */
+    @GetMapping("{userName}/search")
+    public ResponseEntity<?> search(@PathVariable String userName,
+                                    @RequestParam String q,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(required = false) String fields) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "q is required"));
+        }
+        Set<String> selected;
+        try {
+            selected = fields == null ? JournalEntryFields.SUMMARY : JournalEntryFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+        ObjectId ownerId = resolveOwnerId(userName, SecurityContextHolder.getContext().getAuthentication());
+        if (ownerId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Map<String, Object>> results = journalEntryService.search(ownerId, q, from, to, pageNumber, pageSize, selected)
+                .stream().map(entry -> JournalEntryFields.select(entry, selected)).toList();
+        boolean hasNext = results.size() > pageSize;
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", hasNext ? results.subList(0, pageSize) : results);
+        response.put("page", pageNumber);
+        response.put("size", pageSize);
+        response.put("hasNext", hasNext);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Entry and word counts, entries per day and writing streaks, read from the owner's
+     * stats document instead of aggregating their entries.
+     * GET /journal/{userName}/stats
+     */
+    @GetMapping("{userName}/stats")
+    public ResponseEntity<?> stats(@PathVariable String userName) {
+        ObjectId ownerId = resolveOwnerId(userName, SecurityContextHolder.getContext().getAuthentication());
+        if (ownerId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(journalStatsService.get(ownerId));
+    }
+
+    /**
+     * Bulk import: one JSON entry per line. Lines are validated as they stream in and written
+     * in unordered batches; the response lists which lines failed and why.
+     * POST /journal/{userName}/import
+     */
+    @PostMapping(value = "{userName}/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importEntries(@PathVariable String userName, InputStream body) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!authentication.getName().equals(userName) && !hasAdminRole(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "message", "Cannot import into other users' journals"));
+        }
+
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "User not found", "userName", userName));
+        }
+        return ResponseEntity.ok(journalImportService.importEntries(ownerId, body));
+    }
+
+    /**
+     * Bulk export as NDJSON, read from a Mongo cursor with a large batch size. Unlike the
+     * public listing this is limited to the owner and admins.
+     * GET /journal/{userName}/export
+     */
+    @GetMapping(value = "{userName}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEntries(@PathVariable String userName) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!authentication.getName().equals(userName) && !hasAdminRole(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = out -> {
+            try (Stream<JournalEntry> entries = journalEntryService.streamByOwner(ownerId, exportBatchSize)) {
+                Iterator<JournalEntry> it = entries.iterator();
+                while (it.hasNext()) {
+                    out.write(writer.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
             }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + userName + "-journal.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Incremental sync: entries created, updated or deleted since {@code since}, oldest first.
+     * Store the returned checkpoint after applying a page and pass it back as {@code since};
+     * keep going while {@code hasMore}. Omit {@code since} for a first full sync.
+     * GET /journal/{userName}/changes?since=...&limit=200
+     */
+    @GetMapping("{userName}/changes")
+    public ResponseEntity<?> changes(@PathVariable String userName,
+                                     @RequestParam(required = false) String since,
+                                     @RequestParam(defaultValue = "" + DEFAULT_SYNC_PAGE_SIZE) int limit) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!authentication.getName().equals(userName) && !hasAdminRole(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "message", "Cannot sync other users' journals"));
+        }
+
+        JournalCursor checkpoint;
+        try {
+            checkpoint = since == null ? null : JournalCursor.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid checkpoint"));
+        }
+        // deletes older than the tombstone retention are gone, so this client must start over
+        if (checkpoint != null && checkpoint.date().isBefore(
+                LocalDateTime.now().minusSeconds(JournalEntryTombstone.RETENTION_SECONDS))) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                .body(Map.of("success", false, "message", "Checkpoint expired, sync again without since"));
+        }
+        if (!journalEntryService.isSyncAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("success", false, "message", "Sync is unavailable until the lastModified backfill finishes"));
         }
 
-        // For now, allow public reading (you can change this to private later)
-        return ResponseEntity.ok(user.getJournalEntries());
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "User not found", "userName", userName));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_SYNC_PAGE_SIZE));
+        return ResponseEntity.ok(journalEntryService.changesSince(ownerId, checkpoint, pageSize));
     }
 
     @PostMapping("{userName}")
@@ -72,49 +316,41 @@ public class JournalEntryControllerV2 {
                 .body(null); // Cannot create entries for other users
         }
 
-        User user = userService.findByUserName(userName);
-        if (user == null) {
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        myEntry.setDate(LocalDateTime.now());
-        journalEntryService.saveEntry(myEntry);
-        user.getJournalEntries().add(myEntry);
-        userService.saveEntry(user);
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(myEntry);
+        // one insert that already carries the owner link; nothing on the user document changes
+        return ResponseEntity.status(HttpStatus.CREATED).body(journalEntryService.createEntry(ownerId, myEntry));
     }
 
     //Path variable or Query Parameters so we use path variables
 
+    // the whole entry by default; fields=... reads and returns only the selected ones.
+    // ETag and Last-Modified come from the entry's version, so unchanged entries get 304
     @GetMapping("{userName}/id/{myId}")
-    public ResponseEntity<JournalEntry> getJournalEntryById(@PathVariable String userName,
-                                                            @PathVariable ObjectId myId) {
-        // Check authentication for reading specific entries
+    public ResponseEntity<?> getJournalEntryById(@PathVariable String userName,
+                                                 @PathVariable ObjectId myId,
+                                                 @RequestParam(required = false) String fields) {
+        Set<String> selected;
+        try {
+            selected = JournalEntryFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+        // Reading specific entries is public for now too, so only the owner id is needed
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAuthenticated = authentication != null && authentication.isAuthenticated() &&
-                                 !authentication.getPrincipal().equals("anonymousUser");
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        User user = userService.findByUserName(userName);
-        if (user == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-
-        // Allow reading own entries or if admin
-        if (isAuthenticated) {
-            String currentUserName = authentication.getName();
-            if (currentUserName.equals(userName) || hasAdminRole(authentication)) {
-                return user.getJournalEntries().stream()
-                        .filter(e -> myId.equals(e.getId()))
-                        .findFirst()
-                        .map(ResponseEntity::ok)
-                        .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
-            }
+        if (selected == null) {
+            return journalEntryService.findByIdAndOwner(myId, ownerId)
+                    .<ResponseEntity<?>>map(entry -> ETags.ok(entry, JournalEntryFields.ALL).body(entry))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
         }
-
-        // For now, allow public reading of specific entries too
-        return user.getJournalEntries().stream()
-                .filter(e -> myId.equals(e.getId()))
-                .findFirst()
-                .map(ResponseEntity::ok)
+        return journalEntryService.findByIdAndOwner(myId, ownerId, selected)
+                .<ResponseEntity<?>>map(entry -> ETags.ok(entry, selected).body(JournalEntryFields.select(entry, selected)))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
@@ -137,17 +373,15 @@ public class JournalEntryControllerV2 {
                 .body(Map.of("success", false, "message", "Cannot delete other users' entries"));
         }
 
-        User user = userService.findByUserName(userName);
-        if (user == null) {
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("success", false, "message", "User not found", "userName", userName));
         }
-        boolean removed = user.getJournalEntries().removeIf(e -> myId.equals(e.getId()));
-        if (!removed) {
+        if (!journalEntryService.deleteByIdAndOwner(myId, ownerId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("success", false, "message", "Journal entry not found", "id", myId.toHexString()));
         }
-        userService.saveEntry(user);
         return ResponseEntity.ok(Map.of("success", true, "message", "Journal entry deleted successfully", "id", myId.toHexString()));
     }
 
@@ -169,18 +403,33 @@ public class JournalEntryControllerV2 {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        User user = userService.findByUserName(userName);
-        if (user == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        ObjectId ownerId = resolveOwnerId(userName, authentication);
+        if (ownerId == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+
+        if (journalEntryWriteBehind.isEnabled()) {
+            // acknowledged now, written with the next flush; the body would not reflect it yet
+            if (!journalEntryWriteBehind.submit(id, ownerId, newEntry.getTitle(), newEntry.getContent())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            return ResponseEntity.accepted().build();
+        }
 
-        JournalEntry old = user.getJournalEntries().stream()
-                .filter(e -> id.equals(e.getId()))
-                .findFirst().orElse(null);
-        if (old == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        // blank title/content keep their old values, as before
+        JournalEntry updated = journalEntryService.updateFields(id, ownerId, newEntry.getTitle(), newEntry.getContent());
+        if (updated == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        return ResponseEntity.ok(updated);
+    }
 
-        old.setTitle(newEntry.getTitle() != null && !newEntry.getTitle().isBlank() ? newEntry.getTitle() : old.getTitle());
-        old.setContent(newEntry.getContent() != null && !newEntry.getContent().isBlank() ? newEntry.getContent() : old.getContent());
-        userService.saveEntry(user);
-        return ResponseEntity.ok(old);
+    /**
+     * Owner id for a path userName. Callers acting on their own journal already carry it in
+     * their principal, so only admins and anonymous readers cost a (projected) user lookup.
+     */
+    private ObjectId resolveOwnerId(String userName, Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof JournalUserDetails principal
+                && principal.getUsername().equals(userName)) {
+            return principal.getId();
+        }
+        return userService.findIdByUserName(userName);
     }
 
     /**
@@ -1,15 +1,26 @@
 package shoebdev.JournalAPP.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
+import shoebdev.JournalAPP.admission.RateLimiter;
+import shoebdev.JournalAPP.admission.RouteClass;
 import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.security.JournalUserDetails;
+import shoebdev.JournalAPP.security.PasswordHashingRejectedException;
+import shoebdev.JournalAPP.security.TokenClaims;
+import shoebdev.JournalAPP.security.TokenService;
 import shoebdev.JournalAPP.service.UserService;
 
 import java.util.HashMap;
@@ -25,6 +36,18 @@ public class PublicController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
     /**
      * Register a new user
      * POST /public/signup
@@ -55,6 +78,8 @@ public class PublicController {
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(Map.of("success", true, "message", "User registered successfully"));
 
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // 429 from PasswordHashingOverloadFilter
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("success", false, "message", "Registration failed: " + e.getMessage()));
@@ -91,6 +116,8 @@ public class PublicController {
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(Map.of("success", true, "message", "Admin user registered successfully"));
 
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // 429 from PasswordHashingOverloadFilter
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("success", false, "message", "Admin registration failed: " + e.getMessage()));
@@ -118,6 +145,14 @@ public class PublicController {
                     .body(Map.of("success", false, "message", "Password is required"));
             }
 
+            // Guessing one account's password from many addresses still hits this bucket
+            long wait = rateLimiter.acquire(RouteClass.AUTH, RateLimiter.Scope.USER, userName);
+            if (wait > 0) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(wait)))
+                    .body(Map.of("success", false, "message", "Too many login attempts, please retry later"));
+            }
+
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(userName, password)
@@ -126,19 +161,15 @@ public class PublicController {
             // Set authentication in security context
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Get user details
-            User user = userService.findByUserName(userName);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
+            // The authenticated principal already carries id and roles, no second lookup needed
+            JournalUserDetails user = (JournalUserDetails) authentication.getPrincipal();
+            Map<String, Object> response = tokenResponse(user);
             response.put("message", "Login successful");
-            response.put("user", Map.of(
-                "id", user.getId().toHexString(),
-                "userName", user.getUserName(),
-                "roles", user.getRoles()
-            ));
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // 429 from PasswordHashingOverloadFilter
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("success", false, "message", "Invalid username or password"));
@@ -146,24 +177,87 @@ public class PublicController {
     }
 
     /**
-     * Logout user
+     * Exchange a refresh token for a new access/refresh pair. The old refresh token is
+     * used up before anything else, so replaying it (even concurrently) gets a 401, and the
+     * user is re-read so role changes and deletions take effect here.
+     * POST /public/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> body) {
+        TokenClaims claims = tokenService.verify(body.get("refreshToken"), TokenService.REFRESH);
+        if (claims == null || !tokenService.consume(claims)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "message", "Invalid or expired refresh token"));
+        }
+
+        JournalUserDetails user;
+        try {
+            user = (JournalUserDetails) userDetailsService.loadUserByUsername(claims.userName());
+        } catch (UsernameNotFoundException e) {
+            user = null;
+        }
+        if (user == null || !user.getId().equals(claims.userId())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("success", false, "message", "User no longer exists"));
+        }
+
+        Map<String, Object> response = tokenResponse(user);
+        response.put("message", "Token refreshed");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Logout user. Revokes the bearer access token and, if given, the refresh token.
      * POST /public/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout() {
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                      @RequestBody(required = false) Map<String, String> body) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            TokenClaims access = tokenService.verify(authorization.substring("Bearer ".length()).trim(), TokenService.ACCESS);
+            if (access != null) {
+                tokenService.revoke(access);
+            }
+        }
+        if (body != null) {
+            TokenClaims refresh = tokenService.verify(body.get("refreshToken"), TokenService.REFRESH);
+            if (refresh != null) {
+                tokenService.revoke(refresh);
+            }
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Map.of("success", true, "message", "Logged out successfully"));
     }
 
+    private Map<String, Object> tokenResponse(JournalUserDetails user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("tokenType", "Bearer");
+        response.put("accessToken", tokenService.issueAccessToken(user));
+        response.put("refreshToken", tokenService.issueRefreshToken(user));
+        response.put("expiresIn", tokenService.getAccessTtl().toSeconds());
+        response.put("user", Map.of(
+            "id", user.getId().toHexString(),
+            "userName", user.getUsername(),
+            "roles", user.getAuthorities().stream()
+                .map(authority -> authority.getAuthority().substring("ROLE_".length()))
+                .toList()
+        ));
+        return response;
+    }
+
     /**
-     * Health check endpoint
+     * Health check endpoint, backed by the actuator health checks (MongoDB ping, disk space).
+     * Answers 503 when any of them is down.
      * GET /public/health
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
-        return ResponseEntity.ok(Map.of(
-            "status", "UP",
-            "message", "Journal App is running",
+        Status status = healthEndpoint.health().getStatus();
+        boolean up = Status.UP.equals(status);
+        return ResponseEntity.status(up ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+            "status", status.getCode(),
+            "message", up ? "Journal App is running" : "Journal App is unhealthy",
             "timestamp", System.currentTimeMillis()
         ));
     }
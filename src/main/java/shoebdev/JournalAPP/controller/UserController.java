@@ -12,6 +12,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.bson.types.ObjectId;
 
+import shoebdev.JournalAPP.dto.UserSummary;
 import shoebdev.JournalAPP.entity.User;
 import shoebdev.JournalAPP.service.UserService;
 
@@ -24,40 +25,35 @@ public class UserController {
 
     // GET /user - Get all users (Admin only)
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        return ResponseEntity.ok(userService.getAllSummaries());
     }
 
     // GET /user/profile - Get current logged-in user profile
     @GetMapping("/profile")
-    public ResponseEntity<User> getCurrentUserProfile() {
+    public ResponseEntity<UserSummary> getCurrentUserProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userName = authentication.getName();
         User user = userService.findByUserName(userName);
 
         if (user != null) {
-            // Don't return password in response
-            user.setPassword(null);
-            return ResponseEntity.ok(user);
+            UserSummary summary = UserSummary.of(user);
+            return ETags.ok(summary).body(summary);
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
 
     // GET /user/id/{id} - Get user by ID (Admin only)
     @GetMapping("/id/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable ObjectId id) {
-        return userService.findById(id)
-                .map(user -> {
-                    user.setPassword(null); // Don't expose password
-                    return ResponseEntity.ok(user);
-                })
+    public ResponseEntity<UserSummary> getUserById(@PathVariable ObjectId id) {
+        return userService.findSummaryById(id)
+                .map(user -> ETags.ok(user).body(user))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     // PUT /user/profile - Update current user profile
     @PutMapping("/profile")
-    public ResponseEntity<User> updateCurrentUserProfile(@RequestBody User incoming) {
+    public ResponseEntity<UserSummary> updateCurrentUserProfile(@RequestBody User incoming) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userName = authentication.getName();
         User existing = userService.findByUserName(userName);
@@ -74,17 +70,20 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(null); // Username already exists
             }
-            existing.setUserName(incoming.getUserName());
+            // existing may be a cached snapshot: never save it whole over a newer password or roles
+            User updated = userService.updateUserName(existing.getId(), existing.getUserName(), incoming.getUserName());
+            if (updated == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            return ResponseEntity.ok(UserSummary.of(updated));
         }
 
-        userService.saveEntry(existing);
-        existing.setPassword(null); // Don't return password
-        return ResponseEntity.ok(existing);
+        return ResponseEntity.ok(UserSummary.of(existing));
     }
 
     // PUT /user/id/{id} - Update user by ID (Admin only)
     @PutMapping("/id/{id}")
-    public ResponseEntity<User> updateUserById(@PathVariable ObjectId id, @RequestBody User incoming) {
+    public ResponseEntity<UserSummary> updateUserById(@PathVariable ObjectId id, @RequestBody User incoming) {
         User existing = userService.findById(id).orElse(null);
         if (existing == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -110,8 +109,7 @@ public class UserController {
         }
 
         userService.saveEntry(existing);
-        existing.setPassword(null); // Don't return password
-        return ResponseEntity.ok(existing);
+        return ResponseEntity.ok(UserSummary.of(existing));
     }
 
     // DELETE /user/id/{id} - Delete user by ID (Admin only)
@@ -0,0 +1,14 @@
+package shoebdev.JournalAPP.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the latest archive run. {@code hotBytesFreed} estimates the working-set
+ * reduction: entries moved times the hot collection's average document plus index size,
+ * measured when the run started. {@code rawBytes} against {@code storedBytes} is the
+ * compression ratio of what was written to the archive.
+ */
+public record ArchiveProgress(boolean running, LocalDateTime startedAt, LocalDateTime finishedAt, LocalDateTime cutoff,
+                              long ownersChecked, long entriesArchived, long hotBytesFreed,
+                              long rawBytes, long storedBytes) {
+}
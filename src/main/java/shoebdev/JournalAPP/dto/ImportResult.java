@@ -0,0 +1,13 @@
+package shoebdev.JournalAPP.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON import. Only the first few line errors are kept so a bad file
+ * cannot grow the response without bound; {@code failed} always has the full count.
+ */
+public record ImportResult(long lines, long imported, long failed, List<LineError> errors, boolean errorsTruncated) {
+
+    public record LineError(long line, String message) {
+    }
+}
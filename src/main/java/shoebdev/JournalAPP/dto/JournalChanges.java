@@ -0,0 +1,14 @@
+package shoebdev.JournalAPP.dto;
+
+import java.util.List;
+
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+
+/**
+ * One page of incremental sync, oldest change first. Apply it, store {@code checkpoint},
+ * and ask again with it while {@code hasMore} is true.
+ */
+public record JournalChanges(List<JournalEntry> changed, List<JournalEntryTombstone> deleted,
+                             String checkpoint, boolean hasMore) {
+}
@@ -0,0 +1,37 @@
+package shoebdev.JournalAPP.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Keyset position: the (timestamp, _id) of the last entry already returned. Used for the
+ * newest-first listing (entry date) and as the sync checkpoint (lastModified / deletedAt).
+ * Clients only ever see it as an opaque url-safe token.
+ */
+public record JournalCursor(LocalDateTime date, ObjectId id) {
+
+    public String encode() {
+        String raw = date + "|" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static JournalCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new JournalCursor(LocalDateTime.parse(raw.substring(0, sep)), new ObjectId(raw.substring(sep + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package shoebdev.JournalAPP.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Parses the {@code fields=} request parameter and renders entries with only those fields.
+ * The service includes the same names in the Mongo projection, so unselected fields are
+ * never read from the database either.
+ */
+public final class JournalEntryFields {
+
+    public static final Set<String> ALL = Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("id", "title", "content", "date", "version", "lastModified")));
+
+    // same fields as JournalEntrySummary, for views that are not read as that record
+    public static final Set<String> SUMMARY = Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("id", "title", "date")));
+
+    private JournalEntryFields() {
+    }
+
+    /**
+     * @return the selected fields in request order, or null when the parameter is absent
+     * @throws IllegalArgumentException for an empty selection or an unknown field name
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one of " + ALL);
+        }
+        return selected;
+    }
+
+    public static Map<String, Object> select(JournalEntry entry, Set<String> fields) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> view.put("id", entry.getId() == null ? null : entry.getId().toHexString());
+                case "title" -> view.put("title", entry.getTitle());
+                case "content" -> view.put("content", entry.getContent());
+                case "date" -> view.put("date", entry.getDate());
+                case "version" -> view.put("version", entry.getVersion());
+                case "lastModified" -> view.put("lastModified", entry.getLastModified());
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        if (entry.getScore() != null) {
+            view.put("score", entry.getScore());
+        }
+        return view;
+    }
+}
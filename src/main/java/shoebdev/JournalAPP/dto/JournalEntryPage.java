@@ -0,0 +1,10 @@
+package shoebdev.JournalAPP.dto;
+
+import java.util.List;
+
+/**
+ * One page of a journal, newest first. {@code nextCursor} is null on the last page.
+ * Entries are {@link JournalEntrySummary} by default, or field selections for {@code fields=}.
+ */
+public record JournalEntryPage<T>(List<T> entries, String nextCursor) {
+}
@@ -0,0 +1,10 @@
+package shoebdev.JournalAPP.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a journal entry. Read as a Mongo projection, so content is never fetched.
+ * The version is what the page ETag is built from.
+ */
+public record JournalEntrySummary(String id, String title, LocalDateTime date, Long version) {
+}
@@ -0,0 +1,42 @@
+package shoebdev.JournalAPP.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import shoebdev.JournalAPP.entity.JournalStats;
+
+/**
+ * Dashboard numbers for one journal. Streaks count consecutive days with at least one
+ * entry; the current streak is still alive if its last day is today or yesterday.
+ */
+public record JournalStatsSummary(long totalEntries, long totalWords, double averageWords, int activeDays,
+                                  LocalDate firstDay, LocalDate lastDay, int currentStreak, int longestStreak,
+                                  SortedMap<LocalDate, Long> entriesPerDay, LocalDateTime updatedAt) {
+
+    public static JournalStatsSummary of(JournalStats stats, LocalDate today) {
+        SortedMap<LocalDate, Long> perDay = new TreeMap<>();
+        if (stats.getDays() != null) {
+            for (Map.Entry<String, Long> day : stats.getDays().entrySet()) {
+                if (day.getValue() > 0) {
+                    perDay.put(LocalDate.parse(day.getKey()), day.getValue());
+                }
+            }
+        }
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate day : perDay.keySet()) {
+            run = previous != null && previous.plusDays(1).equals(day) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        boolean alive = previous != null && !previous.isBefore(today.minusDays(1));
+        return new JournalStatsSummary(stats.getEntries(), stats.getWords(),
+                stats.getEntries() == 0 ? 0 : (double) stats.getWords() / stats.getEntries(),
+                perDay.size(), perDay.isEmpty() ? null : perDay.firstKey(), previous,
+                alive ? run : 0, longest, perDay, stats.getUpdatedAt());
+    }
+}
@@ -0,0 +1,12 @@
+package shoebdev.JournalAPP.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the latest orphaned-entry scan. {@code bytesReclaimed} is an estimate: entries
+ * deleted times the collection's average document plus index size per entry, measured when
+ * the scan started. MongoDB reuses the space rather than returning it to the OS.
+ */
+public record ReclaimProgress(boolean running, LocalDateTime startedAt, LocalDateTime finishedAt,
+                              long ownersChecked, long orphanedOwners, long entriesDeleted, long bytesReclaimed) {
+}
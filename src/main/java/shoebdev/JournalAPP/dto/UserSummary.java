@@ -0,0 +1,18 @@
+package shoebdev.JournalAPP.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import shoebdev.JournalAPP.entity.User;
+
+/**
+ * API view of a user: no password hash, no journal data. Repository projections read
+ * only these fields from Mongo.
+ */
+public record UserSummary(String id, String userName, List<String> roles, LocalDateTime lastModified) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId() == null ? null : user.getId().toHexString(),
+                user.getUserName(), user.getRoles(), user.getLastModified());
+    }
+}
@@ -0,0 +1,72 @@
+package shoebdev.JournalAPP.entity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Cold tier: up to a few hundred archived entries of one owner and one calendar month, stored
+ * as a single deflate-compressed BSON array. The entries keep their ids; {@link #entryIds}
+ * is the only per-entry field left uncompressed, so an id lookup finds the block by index.
+ */
+@Document(collection = "journalArchive")
+@CompoundIndexes({
+    // paging walks an owner's blocks from the newest entry down, like owner_date_id_idx on the hot side
+    @CompoundIndex(name = "owner_newest_idx", def = "{'ownerId': 1, 'newest': -1}"),
+    // the archive job tops up the owner's last unfilled block of a month
+    @CompoundIndex(name = "owner_month_count_idx", def = "{'ownerId': 1, 'month': 1, 'count': 1}")
+})
+@Getter
+@Setter
+public class JournalArchiveBlock {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId ownerId;
+
+    // first instant of the month the entries were written in
+    private LocalDateTime month;
+
+    // date range of the entries inside, so pages can skip blocks without decompressing them
+    private LocalDateTime oldest;
+
+    private LocalDateTime newest;
+
+    // lastModified range of the entries inside, so incremental sync can skip blocks it has seen
+    private LocalDateTime firstChange;
+
+    private LocalDateTime lastChange;
+
+    @Indexed(name = "entry_ids_idx")
+    private List<ObjectId> entryIds;
+
+    private int count;
+
+    // the entries' share of their owner's JournalStats: entries per day and words
+    private Map<String, Long> days;
+
+    private long words;
+
+    // BSON size before compression, against data.length for the compression ratio
+    private long rawBytes;
+
+    private byte[] data;
+
+    private LocalDateTime archivedAt;
+
+    // blocks are rewritten whole, so concurrent rewrites (restore vs. archive job) must not overwrite each other
+    @Version
+    private Long revision;
+}
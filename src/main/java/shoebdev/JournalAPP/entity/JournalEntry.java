@@ -4,15 +4,28 @@ import java.time.LocalDateTime;
 import java.util.Date;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import lombok.Getter;
 import lombok.Setter;
 
 
 @Document(collection = "journalEntries")
+@CompoundIndexes({
+    // every journal read is "entries of one owner, newest first"; _id breaks ties for keyset paging
+    @CompoundIndex(name = "owner_date_id_idx", def = "{'ownerId': 1, 'date': -1, '_id': -1}"),
+    // incremental sync: "entries of one owner changed after a checkpoint", oldest change first
+    @CompoundIndex(name = "owner_modified_id_idx", def = "{'ownerId': 1, 'lastModified': 1, '_id': 1}"),
+    // full-text search, always scoped to one owner; the ownerId prefix keeps each search inside that user's keys
+    @CompoundIndex(name = "owner_text_idx", def = "{'ownerId': 1, 'title': 'text', 'content': 'text'}")
+})
 @Getter
 @Setter
 public class JournalEntry {
@@ -26,6 +39,20 @@ public class JournalEntry {
 
     private LocalDateTime date;
 
+    // 1 on insert, +1 on every update; ETags are built from id and version
+    private Long version;
+
+    private LocalDateTime lastModified;
+
+    // owning User id; set on the server, never taken from the request body
+    @JsonIgnore
+    private ObjectId ownerId;
+
+    // relevance, only filled in by text search queries and never stored
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
+
     
 //    public ObjectId getId() {
 //        return id;
@@ -0,0 +1,41 @@
+package shoebdev.JournalAPP.entity;
+
+import java.time.LocalDateTime;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Marker left behind by a deleted journal entry so incremental sync can report the delete.
+ * Keyed by the entry's own id, and expired by Mongo after {@link #RETENTION_SECONDS}; a sync
+ * checkpoint older than that can no longer be resumed.
+ */
+@Document(collection = "journalEntryTombstones")
+@CompoundIndex(name = "owner_deleted_id_idx", def = "{'ownerId': 1, 'deletedAt': 1, '_id': 1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntryTombstone {
+
+    public static final int RETENTION_SECONDS = 90 * 24 * 60 * 60;
+
+    @Id
+    private ObjectId id;
+
+    @JsonIgnore
+    private ObjectId ownerId;
+
+    @Indexed(name = "deleted_at_ttl_idx", expireAfterSeconds = RETENTION_SECONDS)
+    private LocalDateTime deletedAt;
+}
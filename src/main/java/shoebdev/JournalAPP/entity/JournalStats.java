@@ -0,0 +1,42 @@
+package shoebdev.JournalAPP.entity;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running totals of one user's journal, archived entries included, kept up to date by $inc
+ * on every entry write so that the stats endpoint reads one document. Rebuilt from the
+ * entries themselves by {@code JournalStatsService}.
+ */
+@Document(collection = "journalStats")
+@Getter
+@Setter
+public class JournalStats {
+
+    // the owner's user id: one document per user
+    @Id
+    private ObjectId ownerId;
+
+    private long entries;
+
+    private long words;
+
+    // "yyyy-MM-dd" (server time zone) -> entries dated that day; days without entries are absent
+    private Map<String, Long> days;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime rebuiltAt;
+
+    // bumped by every increment, so a rebuild never overwrites one that raced it
+    @Version
+    private Long revision;
+}
@@ -8,10 +8,9 @@ import lombok.Setter;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "users")
@@ -32,8 +31,10 @@ public class User {
 
     private List<String> roles;
 
-    @DBRef
-    private List<JournalEntry> journalEntries = new ArrayList<>();
+    // set on every write, served as Last-Modified
+    private LocalDateTime lastModified;
+
+    // journal entries are not embedded here; each JournalEntry points back via ownerId
 
 
 }
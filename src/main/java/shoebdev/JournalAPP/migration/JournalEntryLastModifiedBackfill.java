@@ -0,0 +1,105 @@
+package shoebdev.JournalAPP.migration;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-time online backfill of {@code JournalEntry.lastModified} (from the entry date) and
+ * {@code version} for entries written before they existed. Incremental sync finds entries
+ * through lastModified, so it answers 503 until this has finished.
+ */
+@Component
+@Slf4j
+public class JournalEntryLastModifiedBackfill {
+
+    static final String MIGRATION_ID = "journal-entry-last-modified-backfill";
+    private static final String ENTRIES_COLLECTION = "journalEntries";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${journal.migration.last-modified-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${journal.migration.last-modified-backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${journal.migration.last-modified-backfill.pause-ms:50}")
+    private long pauseMillis;
+
+    private volatile boolean completed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(MIGRATION_ID)),
+                JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION)) {
+            completed = true;
+            return;
+        }
+        Thread worker = new Thread(this::run, "journal-last-modified-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    private void run() {
+        try {
+            long backfilled = 0;
+            ObjectId lastId = null;
+            while (true) {
+                Criteria criteria = Criteria.where("lastModified").exists(false);
+                if (lastId != null) {
+                    criteria = criteria.and("_id").gt(lastId);
+                }
+                Query query = Query.query(criteria).with(Sort.by("_id")).limit(batchSize);
+                query.fields().include("date");
+                List<Document> batch = mongoTemplate.find(query, Document.class, ENTRIES_COLLECTION);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ENTRIES_COLLECTION);
+                for (Document entry : batch) {
+                    Date date = entry.getDate("date");
+                    // the filter repeats exists(false) so a concurrent update's own stamp is never overwritten
+                    updates.updateOne(Query.query(Criteria.where("_id").is(entry.getObjectId("_id")).and("lastModified").exists(false)),
+                            new Update().set("lastModified", date != null ? date : new Date()).set("version", 1L));
+                }
+                updates.execute();
+                backfilled += batch.size();
+                lastId = batch.get(batch.size() - 1).getObjectId("_id");
+                log.info("lastModified backfill: {} entries so far", backfilled);
+                Thread.sleep(pauseMillis);
+            }
+            mongoTemplate.save(new Document("_id", MIGRATION_ID).append("completedAt", new Date()),
+                    JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION);
+            completed = true;
+            log.info("lastModified backfill finished, {} entries stamped", backfilled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("lastModified backfill failed, will retry on next start", e);
+        }
+    }
+}
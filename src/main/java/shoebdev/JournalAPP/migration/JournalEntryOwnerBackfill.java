@@ -0,0 +1,175 @@
+package shoebdev.JournalAPP.migration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.DBRef;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-time online migration from the old {@code User.journalEntries} @DBRef array
+ * to {@code JournalEntry.ownerId}.
+ *
+ * The app keeps serving while this runs: a background thread walks the users that
+ * still carry the array in batches, and {@link #ensureMigrated(ObjectId)} migrates a
+ * single user on demand before any of their data is read or rewritten. The finished
+ * migration leaves a marker in {@code migrations}, read once at startup, so instances
+ * started later skip all of this.
+ */
+@Component
+@Slf4j
+public class JournalEntryOwnerBackfill {
+
+    public static final String MIGRATION_ID = "journal-entry-owner-backfill";
+    public static final String MIGRATIONS_COLLECTION = "migrations";
+    private static final String USERS_COLLECTION = "users";
+    private static final String ENTRIES_COLLECTION = "journalEntries";
+    private static final String LEGACY_FIELD = "journalEntries";
+    // how often ensureMigrated looks for a marker written by another instance meanwhile
+    private static final long MARKER_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${journal.migration.owner-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${journal.migration.owner-backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${journal.migration.owner-backfill.pause-ms:50}")
+    private long pauseMillis;
+
+    // flips to true once the marker document is written; after that every call is a no-op
+    private volatile boolean completed;
+
+    private volatile long markerCheckedAt;
+
+    // before any request can call ensureMigrated, and whether or not this instance runs the backfill
+    @PostConstruct
+    void loadMarker() {
+        markerCheckedAt = System.nanoTime();
+        try {
+            completed = markerExists();
+        } catch (RuntimeException e) {
+            log.warn("Owner backfill: could not read the migration marker, checking again later", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (completed || !enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::run, "journal-owner-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Migrates one user if they still carry the legacy array. Must be called before a
+     * user document is replaced, otherwise the save would drop the array unmigrated.
+     */
+    public void ensureMigrated(ObjectId userId) {
+        if (completed || userId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - markerCheckedAt > MARKER_RECHECK_NANOS) {
+            markerCheckedAt = now;
+            if (markerExists()) {
+                completed = true;
+                return;
+            }
+        }
+        Query query = Query.query(Criteria.where("_id").is(userId).and(LEGACY_FIELD).exists(true));
+        query.fields().include(LEGACY_FIELD);
+        Document user = mongoTemplate.findOne(query, Document.class, USERS_COLLECTION);
+        if (user != null) {
+            migrate(List.of(user));
+        }
+    }
+
+    private boolean markerExists() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(MIGRATION_ID)), MIGRATIONS_COLLECTION);
+    }
+
+    private void run() {
+        try {
+            long migratedUsers = 0;
+            ObjectId lastId = null;
+            while (true) {
+                Criteria criteria = Criteria.where(LEGACY_FIELD).exists(true);
+                if (lastId != null) {
+                    criteria = criteria.and("_id").gt(lastId);
+                }
+                Query query = Query.query(criteria).with(Sort.by("_id")).limit(batchSize);
+                query.fields().include(LEGACY_FIELD);
+                List<Document> batch = mongoTemplate.find(query, Document.class, USERS_COLLECTION);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                migrate(batch);
+                migratedUsers += batch.size();
+                lastId = batch.get(batch.size() - 1).getObjectId("_id");
+                log.info("Owner backfill: migrated {} users so far", migratedUsers);
+                Thread.sleep(pauseMillis);
+            }
+            mongoTemplate.save(new Document("_id", MIGRATION_ID).append("completedAt", new Date()), MIGRATIONS_COLLECTION);
+            completed = true;
+            log.info("Owner backfill finished, {} users migrated", migratedUsers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // leaves the marker unwritten so the next start resumes where this one stopped
+            log.error("Owner backfill failed, will retry on next start", e);
+        }
+    }
+
+    private void migrate(List<Document> users) {
+        BulkOperations entries = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ENTRIES_COLLECTION);
+        BulkOperations owners = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, USERS_COLLECTION);
+        boolean hasEntries = false;
+        for (Document user : users) {
+            ObjectId userId = user.getObjectId("_id");
+            List<Object> entryIds = new ArrayList<>();
+            for (Object ref : user.getList(LEGACY_FIELD, Object.class, List.of())) {
+                if (ref instanceof DBRef dbRef) {
+                    entryIds.add(dbRef.getId());
+                }
+            }
+            if (!entryIds.isEmpty()) {
+                entries.updateMulti(Query.query(Criteria.where("_id").in(entryIds)), new Update().set("ownerId", userId));
+                hasEntries = true;
+            }
+            // entries first, then the array: a crash in between only repeats idempotent work
+            owners.updateOne(Query.query(Criteria.where("_id").is(userId)), new Update().unset(LEGACY_FIELD));
+        }
+        if (hasEntries) {
+            entries.execute();
+        }
+        owners.execute();
+    }
+}
@@ -0,0 +1,48 @@
+package shoebdev.JournalAPP.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import shoebdev.JournalAPP.config.JacksonConfig;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.security.TokenService;
+import shoebdev.JournalAPP.service.ReactiveJournalArchive;
+import shoebdev.JournalAPP.service.ReactiveJournalStats;
+
+/**
+ * Non-blocking variant of the /journal API on WebFlux and the reactive Mongo driver, for
+ * tenants with very many concurrent clients. It shares the entities, the Mongo database and
+ * the bearer-token format with {@code JournalAppApplication}, but none of its servlet beans.
+ *
+ * Start it with {@code mvn spring-boot:run -Dspring-boot.run.main-class=shoebdev.JournalAPP.reactive.JournalReactiveApplication}.
+ * The "reactive" profile keeps this class out of the servlet app's component scan.
+ */
+@Profile(JournalReactiveApplication.PROFILE)
+@SpringBootApplication(exclude = {
+        MongoAutoConfiguration.class,
+        MongoDataAutoConfiguration.class,
+        MongoRepositoriesAutoConfiguration.class
+})
+@EntityScan(basePackageClasses = JournalEntry.class)
+@Import({TokenService.class, JacksonConfig.class, ReactiveJournalStats.class, ReactiveJournalArchive.class})
+public class JournalReactiveApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        builder().run(args);
+    }
+
+    public static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(JournalReactiveApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE);
+    }
+}
@@ -0,0 +1,224 @@
+package shoebdev.JournalAPP.reactive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
+import shoebdev.JournalAPP.security.JournalUserDetails;
+import shoebdev.JournalAPP.service.ReactiveJournalArchive;
+import shoebdev.JournalAPP.service.ReactiveJournalStats;
+
+/**
+ * Non-blocking /journal endpoints with the same paths and access rules as
+ * {@code JournalEntryControllerV2}. Listings are a {@code Flux} straight off the reactive
+ * Mongo cursor, so the driver only fetches as fast as the client reads; ask for
+ * {@code application/x-ndjson} to receive entries as they arrive.
+ *
+ * Listings merge in the archive and writes keep the per-user stats current, as the servlet
+ * app does. Until the owner backfill has finished, every request gets a 503: users it has
+ * not reached yet would otherwise see an empty journal, and on-demand migration needs the
+ * servlet app's blocking template.
+ */
+@RestController
+@RequestMapping("/journal")
+@Profile(JournalReactiveApplication.PROFILE)
+public class ReactiveJournalController {
+
+    // the order of the servlet listing, (date desc, _id desc)
+    private static final Comparator<JournalEntry> NEWEST_FIRST =
+            Comparator.comparing(JournalEntry::getDate).thenComparing(JournalEntry::getId).reversed();
+
+    private final ReactiveJournalEntryRepository entries;
+    private final ReactiveUserRepository users;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveJournalStats stats;
+    private final ReactiveJournalArchive archive;
+    // once the backfill marker is seen the check is skipped; until then it is re-read every 30s
+    private final Mono<Boolean> backfillMarker;
+    private volatile boolean backfillCompleted;
+
+    public ReactiveJournalController(ReactiveJournalEntryRepository entries, ReactiveUserRepository users,
+                                     ReactiveMongoTemplate mongoTemplate, ReactiveJournalStats stats,
+                                     ReactiveJournalArchive archive) {
+        this.entries = entries;
+        this.users = users;
+        this.mongoTemplate = mongoTemplate;
+        this.stats = stats;
+        this.archive = archive;
+        this.backfillMarker = mongoTemplate.exists(
+                        Query.query(Criteria.where("_id").is(JournalEntryOwnerBackfill.MIGRATION_ID)),
+                        JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION)
+                .cache(Duration.ofSeconds(30));
+    }
+
+    @GetMapping(value = "{userName}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<JournalEntry> getAll(@PathVariable String userName,
+                                     @RequestParam(required = false) Integer limit,
+                                     @AuthenticationPrincipal JournalUserDetails principal) {
+        Flux<JournalEntry> journal = ownerId(userName, principal).flatMapMany(ownerId -> Flux.mergeComparing(NEWEST_FIRST,
+                        entries.findByOwnerIdOrderByDateDescIdDesc(ownerId), archive.stream(ownerId))
+                // an interrupted move leaves a copy in each tier; on a tie the hot one, listed first, wins
+                .distinctUntilChanged(JournalEntry::getId));
+        return limit == null ? journal : journal.take(Math.max(1, limit));
+    }
+
+    @GetMapping("{userName}/id/{myId}")
+    public Mono<ResponseEntity<JournalEntry>> getJournalEntryById(@PathVariable String userName,
+                                                                  @PathVariable ObjectId myId,
+                                                                  @AuthenticationPrincipal JournalUserDetails principal) {
+        return ownerId(userName, principal)
+                .flatMap(ownerId -> entries.findByIdAndOwnerId(myId, ownerId).switchIfEmpty(archive.find(myId, ownerId)))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @PostMapping("{userName}")
+    public Mono<ResponseEntity<JournalEntry>> createEntry(@RequestBody JournalEntry myEntry,
+                                                          @PathVariable String userName,
+                                                          @AuthenticationPrincipal JournalUserDetails principal) {
+        if (!mayWrite(userName, principal)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return ownerId(userName, principal)
+                .flatMap(ownerId -> {
+                    myEntry.setId(null);
+                    myEntry.setOwnerId(ownerId);
+                    myEntry.setDate(LocalDateTime.now());
+                    myEntry.setVersion(1L);
+                    myEntry.setLastModified(myEntry.getDate());
+                    return mongoTemplate.insert(myEntry);
+                })
+                .flatMap(saved -> stats.entryCreated(saved).thenReturn(saved))
+                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @PutMapping("{userName}/id/{id}")
+    public Mono<ResponseEntity<JournalEntry>> updateJournalEntryById(@PathVariable String userName,
+                                                                     @PathVariable ObjectId id,
+                                                                     @RequestBody JournalEntry newEntry,
+                                                                     @AuthenticationPrincipal JournalUserDetails principal) {
+        if (!mayWrite(userName, principal)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        String title = newEntry.getTitle() != null && !newEntry.getTitle().isBlank() ? newEntry.getTitle() : null;
+        String content = newEntry.getContent() != null && !newEntry.getContent().isBlank() ? newEntry.getContent() : null;
+        return ownerId(userName, principal)
+                .flatMap(ownerId -> {
+                    if (title == null && content == null) {
+                        return entries.findByIdAndOwnerId(id, ownerId).switchIfEmpty(archive.find(id, ownerId));
+                    }
+                    // as JournalEntryService.updateFields: an archived entry is restored first
+                    return applyUpdate(id, ownerId, title, content).switchIfEmpty(archive.restore(id, ownerId)
+                            .filter(Boolean::booleanValue)
+                            .flatMap(restored -> applyUpdate(id, ownerId, title, content)));
+                })
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // one atomic $set; the previous version comes back so the word count can move by the difference
+    private Mono<JournalEntry> applyUpdate(ObjectId id, ObjectId ownerId, String title, String content) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId));
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().inc("version", 1).set("lastModified", now);
+        if (title != null) {
+            update.set("title", title);
+        }
+        if (content != null) {
+            update.set("content", content);
+        }
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), JournalEntry.class)
+                .flatMap(entry -> {
+                    Mono<Void> counted = content == null ? Mono.empty()
+                            : stats.contentChanged(ownerId, entry.getContent(), content);
+                    if (content != null) {
+                        entry.setContent(content);
+                    }
+                    if (title != null) {
+                        entry.setTitle(title);
+                    }
+                    entry.setVersion(entry.getVersion() == null ? 1L : entry.getVersion() + 1);
+                    entry.setLastModified(now);
+                    return counted.thenReturn(entry);
+                });
+    }
+
+    @DeleteMapping("{userName}/id/{myId}")
+    public Mono<ResponseEntity<Map<String, Object>>> deleteJournalEntryById(@PathVariable String userName,
+                                                                           @PathVariable ObjectId myId,
+                                                                           @AuthenticationPrincipal JournalUserDetails principal) {
+        if (!mayWrite(userName, principal)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Cannot delete other users' entries")));
+        }
+        return ownerId(userName, principal)
+                .flatMap(ownerId -> {
+                    Query query = Query.query(Criteria.where("_id").is(myId).and("ownerId").is(ownerId));
+                    // both copies go, as in JournalEntryService.deleteByIdAndOwner: an interrupted restore leaves two
+                    return mongoTemplate.findAndRemove(query, JournalEntry.class)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .flatMap(removed -> archive.remove(myId, ownerId)
+                                    .map(archived -> removed.orElse(archived))
+                                    .switchIfEmpty(Mono.justOrEmpty(removed)))
+                            // tombstone for incremental sync
+                            .flatMap(deleted -> mongoTemplate.save(new JournalEntryTombstone(myId, ownerId, LocalDateTime.now()))
+                                    .then(stats.entryDeleted(deleted))
+                                    .thenReturn(deleted));
+                })
+                .map(deleted -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true, "message", "Journal entry deleted successfully", "id", myId.toHexString())))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("success", false, "message", "Journal entry not found", "id", myId.toHexString())));
+    }
+
+    // the caller's own id is in the principal; anyone else's costs one lookup
+    private Mono<ObjectId> ownerId(String userName, JournalUserDetails principal) {
+        Mono<ObjectId> ownerId = principal != null && principal.getUsername().equals(userName)
+                ? Mono.just(principal.getId())
+                : users.findByUserName(userName).map(user -> user.getId());
+        return backfillCompleted ? ownerId : backfillMarker.flatMap(completed -> {
+            if (!completed) {
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Journal owner migration still running"));
+            }
+            backfillCompleted = true;
+            return ownerId;
+        });
+    }
+
+    private boolean mayWrite(String userName, JournalUserDetails principal) {
+        return principal != null && (principal.getUsername().equals(userName)
+                || principal.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    }
+}
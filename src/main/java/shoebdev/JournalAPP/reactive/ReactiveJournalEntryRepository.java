@@ -0,0 +1,17 @@
+package shoebdev.JournalAPP.reactive;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+public interface ReactiveJournalEntryRepository extends ReactiveMongoRepository<JournalEntry, ObjectId> {
+
+    // same (ownerId, date desc, _id desc) index as the servlet listing
+    Flux<JournalEntry> findByOwnerIdOrderByDateDescIdDesc(ObjectId ownerId);
+
+    Mono<JournalEntry> findByIdAndOwnerId(ObjectId id, ObjectId ownerId);
+
+}
@@ -0,0 +1,112 @@
+package shoebdev.JournalAPP.reactive;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import reactor.core.publisher.Mono;
+import shoebdev.JournalAPP.security.JournalUserDetails;
+import shoebdev.JournalAPP.security.TokenClaims;
+import shoebdev.JournalAPP.security.TokenService;
+
+/**
+ * Reactive counterpart of {@code SpringSecurity}: same URL rules, stateless, HTTP Basic
+ * against the users collection plus the bearer tokens issued by the servlet app's
+ * /public/login (same secret required).
+ */
+@Configuration
+@Profile(JournalReactiveApplication.PROFILE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String BEARER = "Bearer ";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenService tokenService) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .authorizeExchange(auth -> auth
+                .pathMatchers("/journal/**").authenticated()
+                .pathMatchers("/public/**").permitAll()
+                .pathMatchers("/user/**").authenticated()
+                .pathMatchers("/admin/**").hasRole("ADMIN")
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").hasRole("ADMIN")
+                .anyExchange().authenticated()
+            )
+            .httpBasic(basic -> basic.securityContextRepository(NoOpServerSecurityContextRepository.getInstance()))
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .addFilterAt(bearerTokenFilter(tokenService), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(ReactiveUserRepository users) {
+        return userName -> users.findByUserName(userName)
+                .map(user -> new JournalUserDetails(user.getId(), user.getUserName(), user.getPassword(),
+                        AuthorityUtils.createAuthorityList(
+                                user.getRoles().stream().map(role -> "ROLE_" + role).toArray(String[]::new))));
+    }
+
+    @Bean
+    public UserDetailsRepositoryReactiveAuthenticationManager basicAuthenticationManager(
+            ReactiveUserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        return manager;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Netty rather than Tomcat-as-reactive-server, which would win by classpath order
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Bearer tokens are verified by signature alone, as in TokenAuthenticationFilter.
+     * Requests without one pass through to HTTP Basic.
+     */
+    private AuthenticationWebFilter bearerTokenFilter(TokenService tokenService) {
+        // the converter below already returns a verified authentication
+        ReactiveAuthenticationManager alreadyVerified = Mono::just;
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(alreadyVerified);
+        filter.setServerAuthenticationConverter(exchange -> {
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.startsWith(BEARER)) {
+                return Mono.empty();
+            }
+            TokenClaims claims = tokenService.verify(header.substring(BEARER.length()).trim(), TokenService.ACCESS);
+            if (claims == null) {
+                return Mono.error(new BadCredentialsException("Invalid or expired token"));
+            }
+            JournalUserDetails user = claims.toUserDetails();
+            return Mono.just(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        });
+        filter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return filter;
+    }
+}
@@ -0,0 +1,13 @@
+package shoebdev.JournalAPP.reactive;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Mono;
+import shoebdev.JournalAPP.entity.User;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, ObjectId> {
+
+    Mono<User> findByUserName(String userName);
+
+}
@@ -1,5 +1,8 @@
 package shoebdev.JournalAPP.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -7,5 +10,11 @@ import org.springframework.data.mongodb.repository.MongoRepository;
  
  public interface JournalEntryRepository extends MongoRepository<JournalEntry, ObjectId> {
 
+    // All of these are served by the (ownerId, date desc) compound index on JournalEntry
+    List<JournalEntry> findByOwnerIdOrderByDateDesc(ObjectId ownerId);
+
+    Optional<JournalEntry> findByIdAndOwnerId(ObjectId id, ObjectId ownerId);
+
+    long countByOwnerId(ObjectId ownerId);
 
 }
@@ -1,7 +1,13 @@
 package shoebdev.JournalAPP.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import shoebdev.JournalAPP.dto.UserSummary;
 import shoebdev.JournalAPP.entity.User;
 
 public interface UserRepository extends MongoRepository<User, ObjectId> {
@@ -9,4 +15,11 @@ public interface UserRepository extends MongoRepository<User, ObjectId> {
     // Derived query must match field name exactly: `userName` (not `username`)
     User findByUserName(String userName);
 
+    // DTO projections: Mongo returns only id, userName and roles, never the password hash
+    List<UserSummary> findAllBy();
+
+    Slice<UserSummary> findAllBy(Pageable pageable);
+
+    Optional<UserSummary> findSummaryById(ObjectId id);
+
 }
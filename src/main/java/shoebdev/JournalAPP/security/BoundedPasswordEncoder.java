@@ -0,0 +1,95 @@
+package shoebdev.JournalAPP.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The application's BCrypt {@link PasswordEncoder}. Hashing and verification run on
+ * {@link PasswordHashingExecutor} instead of the request thread.
+ *
+ * The cost factor is {@code journal.security.bcrypt.strength} when set, otherwise it is
+ * calibrated once at startup: the highest cost whose hash still fits in
+ * {@code target-hash-time} on this machine, never below {@code min-strength}.
+ * {@link #upgradeEncoding} reports hashes with a lower cost, and the authentication
+ * provider re-hashes those on the next successful login.
+ */
+@Slf4j
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String PROBE = "calibration-probe";
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final PasswordHashingExecutor executor;
+    private final int strength;
+
+    public BoundedPasswordEncoder(PasswordHashingExecutor executor,
+                                  @Value("${journal.security.bcrypt.strength:0}") int strength,
+                                  @Value("${journal.security.bcrypt.target-hash-time:100ms}") Duration targetHashTime,
+                                  @Value("${journal.security.bcrypt.min-strength:10}") int minStrength,
+                                  @Value("${journal.security.bcrypt.max-strength:14}") int maxStrength,
+                                  MeterRegistry meterRegistry) {
+        this.executor = executor;
+        if (strength > 0) {
+            this.strength = strength;
+        } else {
+            this.strength = calibrate(targetHashTime, minStrength, maxStrength);
+            log.info("BCrypt cost calibrated to {} for a {} ms target", this.strength, targetHashTime.toMillis());
+        }
+        this.bcrypt = new BCryptPasswordEncoder(this.strength);
+        Gauge.builder("auth.bcrypt.strength", () -> this.strength).register(meterRegistry);
+    }
+
+    /**
+     * Times a few hashes at {@code minStrength} and raises the cost while the doubled
+     * time still fits the target. Each cost step doubles the work.
+     */
+    static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(PROBE);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            probe.encode(PROBE);
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+
+        int strength = minStrength;
+        long cost = fastest;
+        while (strength < maxStrength && cost * 2 <= target.toNanos()) {
+            cost *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only parses the hash prefix, so it runs on the caller's thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,51 @@
+package shoebdev.JournalAPP.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Puts {@link CredentialCache} in front of the regular username/password provider.
+ * Misses and failed attempts always go through the delegate, so a wrong password is
+ * never answered from the cache.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+        String password = credentials.toString();
+
+        JournalUserDetails cached = credentialCache.lookup(username, password);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.getPrincipal() instanceof JournalUserDetails user) {
+            credentialCache.put(user, password);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,100 @@
+package shoebdev.JournalAPP.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Remembers credentials that recently passed a full BCrypt check, so repeated HTTP Basic
+ * calls from the same client skip both the Mongo lookup and the hash.
+ *
+ * Each entry holds an HMAC of "username:password" under a key generated at startup, never
+ * the password itself. A hit needs both the username and the HMAC of the presented
+ * credential to match. Entries expire after a fixed TTL and are dropped as soon as
+ * {@code UserService} changes or deletes the user.
+ */
+@Component
+public class CredentialCache {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final Cache<String, CachedCredential> cache;
+    private final SecretKeySpec key;
+
+    public CredentialCache(@Value("${journal.security.credential-cache.max-size:10000}") long maxSize,
+                           @Value("${journal.security.credential-cache.ttl:5m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.credentials");
+    }
+
+    /**
+     * @return the cached principal if this exact username/password pair verified recently
+     */
+    public JournalUserDetails lookup(String username, String password) {
+        CachedCredential cached = cache.getIfPresent(username);
+        if (cached == null || !MessageDigest.isEqual(cached.digest(), digest(username, password))) {
+            return null;
+        }
+        // fresh principal each time: ProviderManager erases credentials on the one it returns
+        return new JournalUserDetails(cached.userId(), username, "", cached.authorities());
+    }
+
+    public void put(JournalUserDetails user, String password) {
+        cache.put(user.getUsername(), new CachedCredential(
+                digest(user.getUsername(), password), user.getId(), List.copyOf(user.getAuthorities())));
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * Drops whatever is cached for this user id, including entries under a previous username.
+     */
+    public void invalidateUser(ObjectId userId) {
+        if (userId != null) {
+            cache.asMap().values().removeIf(cached -> userId.equals(cached.userId()));
+        }
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private record CachedCredential(byte[] digest, ObjectId userId, Collection<? extends GrantedAuthority> authorities) {
+    }
+}
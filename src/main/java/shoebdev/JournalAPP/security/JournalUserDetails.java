@@ -0,0 +1,26 @@
+package shoebdev.JournalAPP.security;
+
+import java.util.Collection;
+
+import org.bson.types.ObjectId;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Spring Security principal that also carries the Mongo id of the {@code User} document,
+ * so code downstream of authentication does not need another lookup to find it.
+ */
+public class JournalUserDetails extends User {
+
+    private final ObjectId id;
+
+    public JournalUserDetails(ObjectId id, String username, String password,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+}
@@ -0,0 +1,112 @@
+package shoebdev.JournalAPP.security;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Small fixed pool that runs every BCrypt hash and verify, so a burst of signups or
+ * logins can use at most {@code threads} cores and the rest stay free for other requests.
+ * Callers block until their hash is done; once the queue is full new work is refused
+ * with {@link PasswordHashingRejectedException} instead of piling up.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Map<String, Timer> hashTimers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(@Value("${journal.security.hashing.threads:0}") int threads,
+                                   @Value("${journal.security.hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        // default to half the cores: hashing is pure CPU and must not crowd out everything else
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("auth.bcrypt.queue.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.bcrypt.rejected")
+                .description("Password hashes refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.bcrypt.queue.depth", pool, p -> p.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.bcrypt.active", pool, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code task} on the hashing pool and waits for its result.
+     *
+     * @param operation tag for the {@code auth.bcrypt.hash} timer, e.g. "encode" or "matches"
+     * @throws PasswordHashingRejectedException if the pool queue is full
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer hashTime = hashTimers.computeIfAbsent(operation, op -> Timer.builder("auth.bcrypt.hash")
+                .description("BCrypt time on the hashing pool")
+                .tag("operation", op)
+                .register(meterRegistry));
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = pool.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package shoebdev.JournalAPP.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Turns a {@link PasswordHashingRejectedException} from anywhere further down the chain
+ * (HTTP Basic, /public/login, signup, password changes) into 429 with Retry-After.
+ */
+public class PasswordHashingOverloadFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (PasswordHashingRejectedException e) {
+            tooManyRequests(response);
+        } catch (ServletException e) {
+            // controller exceptions arrive wrapped by the DispatcherServlet
+            if (!(e.getCause() instanceof PasswordHashingRejectedException)) {
+                throw e;
+            }
+            tooManyRequests(response);
+        }
+    }
+
+    private static void tooManyRequests(HttpServletResponse response) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.resetBuffer();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Server is busy, please retry shortly\"}");
+    }
+}
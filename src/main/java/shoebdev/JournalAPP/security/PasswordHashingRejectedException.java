@@ -0,0 +1,12 @@
+package shoebdev.JournalAPP.security;
+
+/**
+ * Thrown when the password hashing pool and its queue are both full. Answered with
+ * 429 Too Many Requests by {@link PasswordHashingOverloadFilter}.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
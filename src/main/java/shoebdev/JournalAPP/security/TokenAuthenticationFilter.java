@@ -0,0 +1,64 @@
+package shoebdev.JournalAPP.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} requests from the token alone.
+ * Requests without a bearer token fall through to HTTP Basic unchanged. An invalid or
+ * expired token is refused with 401, except on the open paths, which carry on
+ * unauthenticated so that a client with an expired access token can still refresh or log out.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final RequestMatcher openPaths;
+
+    public TokenAuthenticationFilter(TokenService tokenService, RequestMatcher openPaths) {
+        this.tokenService = tokenService;
+        this.openPaths = openPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TokenClaims claims = tokenService.verify(header.substring(BEARER.length()).trim(), TokenService.ACCESS);
+        if (claims == null) {
+            if (openPaths.matches(request)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Invalid or expired token\"}");
+            return;
+        }
+
+        JournalUserDetails user = claims.toUserDetails();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,44 @@
+package shoebdev.JournalAPP.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * Signed content of a token. Serialized as dot-separated fields; the user name is
+ * base64url encoded so it can contain any character.
+ */
+public record TokenClaims(String type, String tokenId, ObjectId userId, String userName, List<String> roles,
+                          Instant expiresAt) {
+
+    String serialize() {
+        return String.join(".",
+                type,
+                tokenId,
+                userId.toHexString(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(userName.getBytes(StandardCharsets.UTF_8)),
+                String.join(",", roles),
+                Long.toString(expiresAt.getEpochSecond()));
+    }
+
+    static TokenClaims parse(String raw) {
+        String[] parts = raw.split("\\.", -1);
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Malformed token");
+        }
+        List<String> roles = parts[4].isEmpty() ? List.of() : Arrays.asList(parts[4].split(","));
+        return new TokenClaims(parts[0], parts[1], new ObjectId(parts[2]),
+                new String(Base64.getUrlDecoder().decode(parts[3]), StandardCharsets.UTF_8),
+                roles, Instant.ofEpochSecond(Long.parseLong(parts[5])));
+    }
+
+    public JournalUserDetails toUserDetails() {
+        return new JournalUserDetails(userId, userName, "",
+                AuthorityUtils.createAuthorityList(roles.stream().map(role -> "ROLE_" + role).toArray(String[]::new)));
+    }
+}
@@ -0,0 +1,153 @@
+package shoebdev.JournalAPP.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed tokens:
+ * {@code base64url(payload) + "." + base64url(signature)}.
+ *
+ * The payload carries everything needed to build the principal (user id, name, roles),
+ * so verifying an access token is a MAC computation and never touches Mongo. Revoked
+ * token ids sit in an in-memory denylist until the token would have expired anyway. The
+ * denylist has no size bound: evicting an id early would make its token valid again.
+ */
+@Component
+@Slf4j
+public class TokenService {
+
+    public static final String ACCESS = "a";
+    public static final String REFRESH = "r";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Cache<String, Instant> denylist;
+
+    public TokenService(@Value("${journal.security.token.secret:}") String secret,
+                        @Value("${journal.security.token.access-ttl:15m}") Duration accessTtl,
+                        @Value("${journal.security.token.refresh-ttl:7d}") Duration refreshTtl) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("journal.security.token.secret is not set; using a random key, tokens will not survive a restart "
+                    + "or work across instances");
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC);
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.denylist = Caffeine.newBuilder()
+                .expireAfter(Expiry.creating((String tokenId, Instant expiresAt) -> {
+                    Duration left = Duration.between(Instant.now(), expiresAt);
+                    return left.isNegative() ? Duration.ZERO : left;
+                }))
+                .build();
+    }
+
+    public String issueAccessToken(JournalUserDetails user) {
+        return issue(ACCESS, user.getId(), user.getUsername(), roles(user), accessTtl);
+    }
+
+    public String issueRefreshToken(JournalUserDetails user) {
+        return issue(REFRESH, user.getId(), user.getUsername(), roles(user), refreshTtl);
+    }
+
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
+    /**
+     * @return the claims of a well-formed, correctly signed, unexpired and unrevoked token
+     *         of the given type, otherwise null
+     */
+    public TokenClaims verify(String token, String expectedType) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            byte[] payload = B64D.decode(token.substring(0, dot));
+            byte[] signature = B64D.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            TokenClaims claims = TokenClaims.parse(new String(payload, StandardCharsets.UTF_8));
+            if (!claims.type().equals(expectedType) || claims.expiresAt().isBefore(Instant.now())
+                    || denylist.getIfPresent(claims.tokenId()) != null) {
+                return null;
+            }
+            return claims;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public void revoke(TokenClaims claims) {
+        denylist.put(claims.tokenId(), claims.expiresAt());
+    }
+
+    /**
+     * Revokes a single-use token in one atomic step.
+     *
+     * @return false if it was already revoked: of concurrent calls with the same token,
+     *         exactly one gets true
+     */
+    public boolean consume(TokenClaims claims) {
+        return denylist.asMap().putIfAbsent(claims.tokenId(), claims.expiresAt()) == null;
+    }
+
+    private String issue(String type, ObjectId userId, String userName, List<String> roles, Duration ttl) {
+        TokenClaims claims = new TokenClaims(type, UUID.randomUUID().toString(), userId, userName, roles,
+                Instant.now().plus(ttl));
+        byte[] payload = claims.serialize().getBytes(StandardCharsets.UTF_8);
+        return B64.encodeToString(payload) + "." + B64.encodeToString(sign(payload));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static List<String> roles(JournalUserDetails user) {
+        return user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+                .toList();
+    }
+}
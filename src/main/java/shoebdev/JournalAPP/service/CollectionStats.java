@@ -0,0 +1,35 @@
+package shoebdev.JournalAPP.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Storage estimates for the maintenance jobs, from collStats.
+ */
+@Slf4j
+final class CollectionStats {
+
+    private CollectionStats() {
+    }
+
+    /**
+     * Average stored bytes per document, data plus indexes, or 0 if collStats is unavailable.
+     */
+    static long bytesPerDocument(MongoTemplate mongoTemplate, String collection) {
+        try {
+            Document stats = mongoTemplate.executeCommand(new Document("collStats", collection));
+            long count = ((Number) stats.getOrDefault("count", 0)).longValue();
+            if (count == 0) {
+                return 0;
+            }
+            long size = ((Number) stats.getOrDefault("size", 0)).longValue();
+            long indexes = ((Number) stats.getOrDefault("totalIndexSize", 0)).longValue();
+            return (size + indexes) / count;
+        } catch (RuntimeException e) {
+            log.debug("collStats unavailable for {}, byte estimates will read 0", collection, e);
+            return 0;
+        }
+    }
+}
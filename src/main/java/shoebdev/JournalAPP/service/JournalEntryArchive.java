@@ -0,0 +1,622 @@
+package shoebdev.JournalAPP.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.dto.JournalCursor;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Cold tier of the journal: entries moved out of {@code journalEntries} by
+ * {@link JournalEntryArchiver}, read here when the hot collection misses and moved back
+ * before they are changed.
+ *
+ * Moves in either direction write the new copy first and remove the old one second, so a
+ * crash can leave an entry in both places but never in neither. The hot copy always wins:
+ * reads skip archived copies of ids that are also hot, and the archive job drops them the
+ * next time it picks the entry up.
+ */
+@Slf4j
+@Component
+public class JournalEntryArchive {
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    // the (date desc, _id desc) order of the hot listing
+    static final Comparator<JournalEntry> NEWEST_FIRST =
+            Comparator.comparing(JournalEntry::getDate).thenComparing(JournalEntry::getId).reversed();
+
+    // the (lastModified, _id) order of incremental sync
+    static final Comparator<JournalEntry> OLDEST_CHANGE_FIRST =
+            Comparator.comparing(JournalEntry::getLastModified).thenComparing(JournalEntry::getId);
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter blockReads;
+    private final Counter restored;
+
+    public JournalEntryArchive(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.blockReads = Counter.builder("journal.archive.block.reads")
+                .description("Archive blocks decompressed to answer reads that fell through the hot collection")
+                .register(meterRegistry);
+        this.restored = Counter.builder("journal.archive.restored")
+                .description("Archived entries moved back to the hot collection to be updated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * What {@link #append} wrote: the blocks it touched, and how many bytes they grew by
+     * before and after compression.
+     */
+    record Appended(List<ObjectId> blockIds, long rawBytes, long storedBytes) {
+    }
+
+    public Optional<JournalEntry> find(ObjectId id, ObjectId ownerId) {
+        JournalArchiveBlock block = mongoTemplate.findOne(blockOf(id, ownerId), JournalArchiveBlock.class);
+        if (block == null) {
+            return Optional.empty();
+        }
+        blockReads.increment();
+        return decode(block).stream().filter(entry -> entry.getId().equals(id)).findFirst();
+    }
+
+    /**
+     * Up to limit archived entries of the owner after the cursor, newest first, dated no
+     * earlier than notBefore (null for no bound). Blocks are decompressed newest first and
+     * only until no further block can make it into the page.
+     */
+    public List<JournalEntry> findPage(ObjectId ownerId, JournalCursor after, LocalDateTime notBefore, int limit) {
+        Criteria criteria = Criteria.where("ownerId").is(ownerId);
+        if (after != null) {
+            criteria = criteria.and("oldest").lte(after.date());
+        }
+        if (notBefore != null) {
+            criteria = criteria.and("newest").gte(notBefore);
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "newest"));
+        List<JournalEntry> page = new ArrayList<>();
+        try (Stream<JournalArchiveBlock> blocks = mongoTemplate.stream(query, JournalArchiveBlock.class)) {
+            Iterator<JournalArchiveBlock> it = blocks.iterator();
+            while (it.hasNext()) {
+                JournalArchiveBlock block = it.next();
+                if (page.size() == limit && block.getNewest().isBefore(page.get(limit - 1).getDate())) {
+                    break;
+                }
+                blockReads.increment();
+                for (JournalEntry entry : decode(block)) {
+                    if (isAfter(entry, after) && (notBefore == null || !entry.getDate().isBefore(notBefore))) {
+                        page.add(entry);
+                    }
+                }
+                page.sort(NEWEST_FIRST);
+                if (page.size() > limit) {
+                    page.subList(limit, page.size()).clear();
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Archived entries of the owner after the cursor, newest first. Blocks are read newest
+     * first and decompressed a run of date-overlapping blocks at a time as the stream is
+     * consumed; the caller must close the stream.
+     */
+    public Stream<JournalEntry> stream(ObjectId ownerId, JournalCursor after) {
+        Criteria criteria = Criteria.where("ownerId").is(ownerId);
+        if (after != null) {
+            criteria = criteria.and("oldest").lte(after.date());
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "newest"));
+        Stream<JournalArchiveBlock> blocks = mongoTemplate.stream(query, JournalArchiveBlock.class);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(runs(blocks.iterator()), Spliterator.ORDERED), false)
+                .onClose(blocks::close)
+                .flatMap(run -> {
+                    List<JournalEntry> entries = new ArrayList<>();
+                    for (JournalArchiveBlock block : run) {
+                        blockReads.increment();
+                        Set<ObjectId> hot = hotIds(block.getEntryIds());
+                        decode(block).stream()
+                                .filter(entry -> isAfter(entry, after) && !hot.contains(entry.getId()))
+                                .forEach(entries::add);
+                    }
+                    entries.sort(NEWEST_FIRST);
+                    return entries.stream();
+                });
+    }
+
+    // groups blocks read newest first into the runs of startsNewestFirstRun, reading ahead one block
+    private static Iterator<List<JournalArchiveBlock>> runs(Iterator<JournalArchiveBlock> blocks) {
+        Predicate<JournalArchiveBlock> startsRun = startsNewestFirstRun();
+        return new Iterator<>() {
+            private JournalArchiveBlock first;
+
+            @Override
+            public boolean hasNext() {
+                if (first == null && blocks.hasNext()) {
+                    first = blocks.next();
+                    startsRun.test(first);
+                }
+                return first != null;
+            }
+
+            @Override
+            public List<JournalArchiveBlock> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<JournalArchiveBlock> run = new ArrayList<>(List.of(first));
+                first = null;
+                while (blocks.hasNext()) {
+                    JournalArchiveBlock block = blocks.next();
+                    if (startsRun.test(block)) {
+                        first = block;
+                        break;
+                    }
+                    run.add(block);
+                }
+                return run;
+            }
+        };
+    }
+
+    /**
+     * Up to limit archived entries of the owner changed after the checkpoint (all of them if
+     * it is null) and before the horizon, oldest change first, leaving out ids that are hot
+     * again. Blocks are decompressed in order of their first change and only until no
+     * further block can make it into the page.
+     */
+    public List<JournalEntry> findChanged(ObjectId ownerId, JournalCursor since, LocalDateTime horizon, int limit) {
+        Criteria criteria = Criteria.where("ownerId").is(ownerId);
+        if (since != null) {
+            // blocks written before they recorded their change range are always read
+            criteria = criteria.orOperator(Criteria.where("lastChange").gte(since.date()),
+                    Criteria.where("lastChange").exists(false));
+        }
+        // a missing firstChange sorts first
+        Query query = Query.query(criteria).with(Sort.by("firstChange"));
+        List<JournalEntry> page = new ArrayList<>();
+        try (Stream<JournalArchiveBlock> blocks = mongoTemplate.stream(query, JournalArchiveBlock.class)) {
+            Iterator<JournalArchiveBlock> it = blocks.iterator();
+            while (it.hasNext()) {
+                JournalArchiveBlock block = it.next();
+                if (page.size() == limit && block.getFirstChange() != null
+                        && block.getFirstChange().isAfter(page.get(limit - 1).getLastModified())) {
+                    break;
+                }
+                blockReads.increment();
+                Set<ObjectId> hot = hotIds(block.getEntryIds());
+                for (JournalEntry entry : decode(block)) {
+                    if (entry.getLastModified() != null && entry.getLastModified().isBefore(horizon)
+                            && isChangedAfter(entry, since) && !hot.contains(entry.getId())) {
+                        page.add(entry);
+                    }
+                }
+                page.sort(OLDEST_CHANGE_FIRST);
+                if (page.size() > limit) {
+                    page.subList(limit, page.size()).clear();
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Archived entries of the owner matching a text search, dated within from..to (either
+     * may be null), newest first: up to limit of them after skipping the first skip. The
+     * text index does not reach into the blocks, so this reads the $search string the same
+     * way but matches more loosely: terms match case-insensitively anywhere in the title or
+     * content, "quoted phrases" must all appear and -terms must not, with no stemming or
+     * stop words.
+     */
+    public List<JournalEntry> search(ObjectId ownerId, String text, LocalDateTime from, LocalDateTime to,
+                                     long skip, int limit) {
+        SearchText search = SearchText.parse(text);
+        Criteria criteria = Criteria.where("ownerId").is(ownerId);
+        if (to != null) {
+            criteria = criteria.and("oldest").lte(to);
+        }
+        if (from != null) {
+            criteria = criteria.and("newest").gte(from);
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "newest"));
+        int wanted = (int) Math.min(Integer.MAX_VALUE, skip + limit);
+        List<JournalEntry> matches = new ArrayList<>();
+        try (Stream<JournalArchiveBlock> blocks = mongoTemplate.stream(query, JournalArchiveBlock.class)) {
+            Iterator<JournalArchiveBlock> it = blocks.iterator();
+            while (it.hasNext()) {
+                JournalArchiveBlock block = it.next();
+                if (matches.size() >= wanted && block.getNewest().isBefore(matches.get(wanted - 1).getDate())) {
+                    break;
+                }
+                blockReads.increment();
+                Set<ObjectId> hot = hotIds(block.getEntryIds());
+                for (JournalEntry entry : decode(block)) {
+                    if ((from == null || !entry.getDate().isBefore(from)) && (to == null || !entry.getDate().isAfter(to))
+                            && !hot.contains(entry.getId()) && search.matches(entry)) {
+                        matches.add(entry);
+                    }
+                }
+                matches.sort(NEWEST_FIRST);
+                if (matches.size() > wanted) {
+                    matches.subList(wanted, matches.size()).clear();
+                }
+            }
+        }
+        return skip >= matches.size() ? List.of() : matches.subList((int) skip, matches.size());
+    }
+
+    /**
+     * Moves an archived entry of the owner back to the hot collection, stamped as modified
+     * now: that keeps the archiver from taking it straight back before the caller's update
+     * lands.
+     * @return false if the archive has no such entry either
+     */
+    public boolean restore(ObjectId id, ObjectId ownerId) {
+        JournalEntry entry = take(id, ownerId, archived -> {
+            archived.setLastModified(LocalDateTime.now());
+            try {
+                mongoTemplate.insert(archived);
+            } catch (DuplicateKeyException e) {
+                // an earlier restore got this far and then failed to rewrite the block
+            }
+        });
+        if (entry == null) {
+            return false;
+        }
+        restored.increment();
+        return true;
+    }
+
+    /**
+     * Deletes an archived entry; ownerId may be null for admin deletes by id alone.
+     * @return the deleted entry, or null if the archive has no such entry
+     */
+    public JournalEntry remove(ObjectId id, ObjectId ownerId) {
+        return take(id, ownerId, archived -> { });
+    }
+
+    /**
+     * Deletes all archive blocks of the owner.
+     * @return how many entries they held
+     */
+    public long deleteOwner(ObjectId ownerId) {
+        Query query = Query.query(Criteria.where("ownerId").is(ownerId));
+        query.fields().include("count");
+        long entries = mongoTemplate.find(query, JournalArchiveBlock.class).stream()
+                .mapToLong(JournalArchiveBlock::getCount).sum();
+        mongoTemplate.remove(Query.query(Criteria.where("ownerId").is(ownerId)), JournalArchiveBlock.class);
+        return entries;
+    }
+
+    /**
+     * Adds entries of one owner and month to the archive, topping up the month's last block
+     * and opening new ones of at most maxBlockEntries. The entries stay in the hot
+     * collection; removing them there is the caller's second step.
+     */
+    Appended append(ObjectId ownerId, LocalDateTime month, List<JournalEntry> entries, int maxBlockEntries) {
+        return retrying(() -> {
+            List<ObjectId> blockIds = new ArrayList<>();
+            long rawBytes = 0;
+            long storedBytes = 0;
+            int next = 0;
+            Query open = Query.query(Criteria.where("ownerId").is(ownerId).and("month").is(month)
+                    .and("count").lt(maxBlockEntries));
+            JournalArchiveBlock block = mongoTemplate.findOne(open, JournalArchiveBlock.class);
+            if (block != null) {
+                next = Math.min(entries.size(), maxBlockEntries - block.getCount());
+                List<JournalEntry> merged = decode(block);
+                merged.addAll(entries.subList(0, next));
+                rawBytes -= block.getRawBytes();
+                storedBytes -= block.getData().length;
+                fill(mongoTemplate.getConverter(), block, merged);
+                mongoTemplate.save(block);
+                blockIds.add(block.getId());
+                rawBytes += block.getRawBytes();
+                storedBytes += block.getData().length;
+            }
+            while (next < entries.size()) {
+                int end = Math.min(entries.size(), next + maxBlockEntries);
+                JournalArchiveBlock fresh = new JournalArchiveBlock();
+                fresh.setOwnerId(ownerId);
+                fresh.setMonth(month);
+                fill(mongoTemplate.getConverter(), fresh, new ArrayList<>(entries.subList(next, end)));
+                mongoTemplate.insert(fresh);
+                blockIds.add(fresh.getId());
+                rawBytes += fresh.getRawBytes();
+                storedBytes += fresh.getData().length;
+                next = end;
+            }
+            return new Appended(blockIds, rawBytes, storedBytes);
+        });
+    }
+
+    /**
+     * Removes the given entries from every archive block that holds them, or only from the
+     * given blocks if blockIds is not null.
+     */
+    void drop(Collection<ObjectId> ids, Collection<ObjectId> blockIds) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<ObjectId> dropped = new HashSet<>(ids);
+        retrying(() -> {
+            Criteria criteria = Criteria.where("entryIds").in(ids);
+            if (blockIds != null) {
+                criteria = criteria.and("_id").in(blockIds);
+            }
+            for (JournalArchiveBlock block : mongoTemplate.find(Query.query(criteria), JournalArchiveBlock.class)) {
+                List<JournalEntry> kept = decode(block);
+                kept.removeIf(entry -> dropped.contains(entry.getId()));
+                rewrite(block, kept);
+            }
+            return null;
+        });
+    }
+
+    // finds the entry's block, hands the entry to beforeRewrite, then rewrites the block without it
+    private JournalEntry take(ObjectId id, ObjectId ownerId, Consumer<JournalEntry> beforeRewrite) {
+        return retrying(() -> {
+            JournalArchiveBlock block = mongoTemplate.findOne(blockOf(id, ownerId), JournalArchiveBlock.class);
+            if (block == null) {
+                return null;
+            }
+            List<JournalEntry> entries = decode(block);
+            JournalEntry taken = entries.stream().filter(entry -> entry.getId().equals(id)).findFirst().orElse(null);
+            if (taken == null) {
+                return null;
+            }
+            beforeRewrite.accept(taken);
+            entries.remove(taken);
+            rewrite(block, entries);
+            return taken;
+        });
+    }
+
+    private void rewrite(JournalArchiveBlock block, List<JournalEntry> entries) {
+        if (!entries.isEmpty()) {
+            fill(mongoTemplate.getConverter(), block, entries);
+            mongoTemplate.save(block);
+        } else if (mongoTemplate.remove(block).getDeletedCount() == 0) {
+            throw new OptimisticLockingFailureException("Archive block " + block.getId() + " changed concurrently");
+        }
+    }
+
+    // blocks are rewritten whole under their @Version; on a conflict the block is read again
+    private static <T> T retrying(Supplier<T> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return change.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Archive block changed concurrently, retrying", e);
+            }
+        }
+    }
+
+    static Query blockOf(ObjectId id, ObjectId ownerId) {
+        Criteria criteria = Criteria.where("entryIds").is(id);
+        if (ownerId != null) {
+            criteria = criteria.and("ownerId").is(ownerId);
+        }
+        return Query.query(criteria);
+    }
+
+    /**
+     * For an owner's blocks read newest first: a fresh, stateful predicate that is true for
+     * each block whose entries are all older than those of every block before it. Blocks
+     * between two such starts can overlap in date and are sorted together; the runs
+     * themselves already come out newest first.
+     */
+    static Predicate<JournalArchiveBlock> startsNewestFirstRun() {
+        LocalDateTime[] runOldest = {null};
+        return block -> {
+            boolean starts = runOldest[0] != null && block.getNewest().isBefore(runOldest[0]);
+            if (runOldest[0] == null || starts || block.getOldest().isBefore(runOldest[0])) {
+                runOldest[0] = block.getOldest();
+            }
+            return starts;
+        };
+    }
+
+    private static boolean isChangedAfter(JournalEntry entry, JournalCursor since) {
+        if (since == null) {
+            return true;
+        }
+        int date = entry.getLastModified().compareTo(since.date());
+        return date > 0 || (date == 0 && entry.getId().compareTo(since.id()) > 0);
+    }
+
+    private static boolean isAfter(JournalEntry entry, JournalCursor after) {
+        if (after == null) {
+            return true;
+        }
+        int date = entry.getDate().compareTo(after.date());
+        return date < 0 || (date == 0 && entry.getId().compareTo(after.id()) < 0);
+    }
+
+    private Set<ObjectId> hotIds(List<ObjectId> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        Set<ObjectId> hot = new HashSet<>();
+        for (Document entry : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(JournalEntry.class))) {
+            hot.add(entry.getObjectId("_id"));
+        }
+        return hot;
+    }
+
+    // (re)writes the block's compressed data and everything derived from its entries
+    static void fill(MongoConverter converter, JournalArchiveBlock block, List<JournalEntry> entries) {
+        entries.sort(NEWEST_FIRST);
+        List<Document> documents = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            Document document = new Document();
+            converter.write(entry, document);
+            documents.add(document);
+        }
+        ByteBuffer bson = new RawBsonDocument(new Document("entries", documents), CODEC).getByteBuffer().asNIO();
+        byte[] raw = new byte[bson.remaining()];
+        bson.get(raw);
+
+        block.setEntryIds(entries.stream().map(JournalEntry::getId).toList());
+        block.setNewest(entries.get(0).getDate());
+        block.setOldest(entries.get(entries.size() - 1).getDate());
+        block.setFirstChange(entries.stream().map(JournalEntry::getLastModified).filter(Objects::nonNull)
+                .min(Comparator.naturalOrder()).orElse(null));
+        block.setLastChange(entries.stream().map(JournalEntry::getLastModified).filter(Objects::nonNull)
+                .max(Comparator.naturalOrder()).orElse(null));
+        block.setRawBytes(raw.length);
+        block.setData(deflate(raw));
+        block.setArchivedAt(LocalDateTime.now());
+        summarize(block, entries);
+    }
+
+    // the block's share of the owner's stats, so a stats rebuild never has to decompress it
+    static void summarize(JournalArchiveBlock block, List<JournalEntry> entries) {
+        Map<String, Long> days = new HashMap<>();
+        long words = 0;
+        for (JournalEntry entry : entries) {
+            days.merge(JournalStatsService.day(entry.getDate()), 1L, Long::sum);
+            words += JournalStatsService.countWords(entry.getContent());
+        }
+        block.setCount(entries.size());
+        block.setWords(words);
+        block.setDays(days);
+    }
+
+    List<JournalEntry> decode(JournalArchiveBlock block) {
+        return decode(mongoTemplate.getConverter(), block);
+    }
+
+    static List<JournalEntry> decode(MongoConverter converter, JournalArchiveBlock block) {
+        Document decoded = new RawBsonDocument(inflate(block.getData(), block.getRawBytes())).decode(CODEC);
+        List<JournalEntry> entries = new ArrayList<>(block.getCount());
+        for (Document document : decoded.getList("entries", Document.class)) {
+            entries.add(converter.read(JournalEntry.class, document));
+        }
+        return entries;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, long rawBytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[Math.toIntExact(rawBytes)];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, raw.length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Archive block is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Archive block is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // a $text search string taken apart: "phrases", -negated terms and plain terms, lower-cased
+    private record SearchText(List<String> terms, List<String> phrases, List<String> negated) {
+
+        static SearchText parse(String text) {
+            List<String> phrases = new ArrayList<>();
+            Matcher quoted = PHRASE.matcher(text);
+            while (quoted.find()) {
+                if (!quoted.group(1).isBlank()) {
+                    phrases.add(quoted.group(1).toLowerCase(Locale.ROOT));
+                }
+            }
+            List<String> terms = new ArrayList<>();
+            List<String> negated = new ArrayList<>();
+            for (String word : PHRASE.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT).split("\\s+")) {
+                if (word.length() > 1 && word.startsWith("-")) {
+                    negated.add(word.substring(1));
+                } else if (!word.isEmpty() && !word.equals("-")) {
+                    terms.add(word);
+                }
+            }
+            return new SearchText(terms, phrases, negated);
+        }
+
+        // as with $text: phrases are all required, and then terms are optional; otherwise any term will do
+        boolean matches(JournalEntry entry) {
+            String haystack = ((entry.getTitle() == null ? "" : entry.getTitle()) + "\n"
+                    + (entry.getContent() == null ? "" : entry.getContent())).toLowerCase(Locale.ROOT);
+            if (negated.stream().anyMatch(haystack::contains) || !phrases.stream().allMatch(haystack::contains)) {
+                return false;
+            }
+            return !phrases.isEmpty() || terms.stream().anyMatch(haystack::contains);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.dto.ArchiveProgress;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+
+/**
+ * Moves entries that were written and last changed more than {@code journal.archive.age}
+ * ago from {@code journalEntries} into compressed monthly blocks ({@link JournalEntryArchive}).
+ *
+ * Each run walks the owners and takes each one's oldest entries past the cutoff in batches
+ * of {@code batch-size}, so it only ever does the work that accumulated since the last run.
+ * A batch is appended to the archive first and then deleted from the hot collection by
+ * (id, version); entries edited or deleted in between stay hot and their archived copy is
+ * dropped again. Like the orphan reclaimer it sleeps between batches to stay under
+ * {@code duty-cycle}. Enable it on one instance only: concurrent runs would race on the
+ * same entries.
+ */
+@Slf4j
+@Component
+public class JournalEntryArchiver {
+
+    private static final Duration MIN_PAUSE = Duration.ofMillis(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final JournalEntryArchive archive;
+    private final boolean enabled;
+    private final Duration initialDelay;
+    private final Duration interval;
+    private final Duration age;
+    private final int batchSize;
+    private final double dutyCycle;
+    private final ScheduledExecutorService worker;
+    private final Counter archivedEntries;
+    private final Counter hotBytesFreed;
+    private final Counter rawBytes;
+    private final Counter storedBytes;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ArchiveProgress progress = new ArchiveProgress(false, null, null, null, 0, 0, 0, 0, 0);
+
+    public JournalEntryArchiver(MongoTemplate mongoTemplate,
+                                JournalEntryArchive archive,
+                                @Value("${journal.archive.enabled:false}") boolean enabled,
+                                @Value("${journal.archive.initial-delay:5m}") Duration initialDelay,
+                                @Value("${journal.archive.interval:6h}") Duration interval,
+                                @Value("${journal.archive.age:180d}") Duration age,
+                                @Value("${journal.archive.batch-size:500}") int batchSize,
+                                @Value("${journal.archive.duty-cycle:0.2}") double dutyCycle,
+                                MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.archive = archive;
+        this.enabled = enabled;
+        this.initialDelay = initialDelay;
+        this.interval = interval;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.dutyCycle = Math.max(0.01, Math.min(1.0, dutyCycle));
+        this.worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-entry-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.archivedEntries = Counter.builder("journal.archive.entries")
+                .description("Journal entries moved from the hot collection to the archive")
+                .register(meterRegistry);
+        this.hotBytesFreed = Counter.builder("journal.archive.hot.bytes")
+                .description("Estimated data and index bytes of the hot collection freed by archiving")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.rawBytes = Counter.builder("journal.archive.raw.bytes")
+                .description("BSON bytes of archived entries before compression")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.storedBytes = Counter.builder("journal.archive.stored.bytes")
+                .description("Compressed bytes written to archive blocks")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            worker.scheduleWithFixedDelay(this::runQuietly,
+                    initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // a batch cut short is either still hot or in both places, which the next run sorts out
+        worker.shutdownNow();
+    }
+
+    /**
+     * @return false if a run is already in progress
+     */
+    public boolean runNow() {
+        if (running.get()) {
+            return false;
+        }
+        worker.execute(this::runQuietly);
+        return true;
+    }
+
+    public ArchiveProgress getProgress() {
+        return progress;
+    }
+
+    private void runQuietly() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Journal archive run failed", e);
+        } finally {
+            if (progress.running()) {
+                progress = finished(progress);
+            }
+            running.set(false);
+        }
+    }
+
+    void run() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        long bytesPerEntry = CollectionStats.bytesPerDocument(mongoTemplate,
+                mongoTemplate.getCollectionName(JournalEntry.class));
+        progress = new ArchiveProgress(true, LocalDateTime.now(), null, cutoff, 0, 0, 0, 0, 0);
+
+        // $sort + $group on ownerId is answered from the ownerId index (a distinct scan)
+        Aggregation owners = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by("ownerId")),
+                Aggregation.group("ownerId"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(batchSize).build());
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(owners,
+                mongoTemplate.getCollectionName(JournalEntry.class), Document.class)) {
+            Iterator<Document> groups = stream.iterator();
+            while (groups.hasNext()) {
+                // unowned entries have nowhere to be archived to until the owner backfill claims them
+                if (groups.next().get("_id") instanceof ObjectId ownerId) {
+                    archiveOwner(ownerId, cutoff, bytesPerEntry);
+                    progress = new ArchiveProgress(true, progress.startedAt(), null, cutoff,
+                            progress.ownersChecked() + 1, progress.entriesArchived(), progress.hotBytesFreed(),
+                            progress.rawBytes(), progress.storedBytes());
+                }
+            }
+        }
+
+        progress = finished(progress);
+        log.info("Archive run finished: {} owners checked, {} entries archived, ~{} hot bytes freed, {} -> {} bytes compressed",
+                progress.ownersChecked(), progress.entriesArchived(), progress.hotBytesFreed(),
+                progress.rawBytes(), progress.storedBytes());
+    }
+
+    private void archiveOwner(ObjectId ownerId, LocalDateTime cutoff, long bytesPerEntry) throws InterruptedException {
+        Query query = Query.query(Criteria.where("ownerId").is(ownerId)
+                        .and("date").lt(cutoff)
+                        .and("lastModified").lt(cutoff))
+                .with(Sort.by("date", "_id"))
+                .limit(batchSize);
+        while (true) {
+            long started = System.nanoTime();
+            List<JournalEntry> entries = mongoTemplate.find(query, JournalEntry.class);
+            if (entries.isEmpty()) {
+                return;
+            }
+            Map<LocalDateTime, List<JournalEntry>> byMonth = new LinkedHashMap<>();
+            for (JournalEntry entry : entries) {
+                LocalDateTime month = entry.getDate().toLocalDate().withDayOfMonth(1).atStartOfDay();
+                byMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(entry);
+            }
+            long moved = 0;
+            for (Map.Entry<LocalDateTime, List<JournalEntry>> month : byMonth.entrySet()) {
+                moved += archiveMonth(ownerId, month.getKey(), month.getValue(), bytesPerEntry);
+            }
+            long busy = System.nanoTime() - started;
+            // sleep long enough that this thread stays under the duty cycle
+            TimeUnit.NANOSECONDS.sleep(Math.max(MIN_PAUSE.toNanos(), (long) (busy * (1 - dutyCycle) / dutyCycle)));
+            // nothing moved means every entry was being edited; leave them to the next run
+            if (entries.size() < batchSize || moved == 0) {
+                return;
+            }
+        }
+    }
+
+    private long archiveMonth(ObjectId ownerId, LocalDateTime month, List<JournalEntry> entries, long bytesPerEntry) {
+        List<ObjectId> ids = entries.stream().map(JournalEntry::getId).toList();
+        // copies left behind by an interrupted run or restore; the hot entry is the current one
+        archive.drop(ids, null);
+        JournalEntryArchive.Appended appended = archive.append(ownerId, month, entries, batchSize);
+
+        BulkOperations deletes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class);
+        for (JournalEntry entry : entries) {
+            deletes.remove(Query.query(Criteria.where("_id").is(entry.getId()).and("version").is(entry.getVersion())));
+        }
+        long moved = deletes.execute().getDeletedCount();
+        if (moved < entries.size()) {
+            archive.drop(changedMeanwhile(ids), appended.blockIds());
+        }
+
+        archivedEntries.increment(moved);
+        hotBytesFreed.increment(moved * bytesPerEntry);
+        rawBytes.increment(appended.rawBytes());
+        storedBytes.increment(appended.storedBytes());
+        progress = new ArchiveProgress(true, progress.startedAt(), null, progress.cutoff(), progress.ownersChecked(),
+                progress.entriesArchived() + moved, progress.hotBytesFreed() + moved * bytesPerEntry,
+                progress.rawBytes() + appended.rawBytes(), progress.storedBytes() + appended.storedBytes());
+        return moved;
+    }
+
+    // entries whose delete by version missed: edited since they were read (still hot) or deleted (tombstoned)
+    private Set<ObjectId> changedMeanwhile(List<ObjectId> ids) {
+        Set<ObjectId> changed = new HashSet<>();
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        for (Document doc : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(JournalEntry.class))) {
+            changed.add(doc.getObjectId("_id"));
+        }
+        for (Document doc : mongoTemplate.find(query, Document.class,
+                mongoTemplate.getCollectionName(JournalEntryTombstone.class))) {
+            changed.add(doc.getObjectId("_id"));
+        }
+        return changed;
+    }
+
+    private static ArchiveProgress finished(ArchiveProgress progress) {
+        return new ArchiveProgress(false, progress.startedAt(), LocalDateTime.now(), progress.cutoff(),
+                progress.ownersChecked(), progress.entriesArchived(), progress.hotBytesFreed(),
+                progress.rawBytes(), progress.storedBytes());
+    }
+}
@@ -0,0 +1,290 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.dto.ReclaimProgress;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
+
+/**
+ * Removes journal entries whose owner no longer exists, on one background thread, along
+ * with the owner's archive blocks.
+ *
+ * Deleting a user hands their entries here ({@link #reclaimOwner}) instead of removing them
+ * on the request thread. A periodic scan ({@code journal.maintenance.orphan-reclaim.*})
+ * catches whatever a crash left behind, plus entries that predate ownerId and were never
+ * claimed by the owner backfill. Deletes go out in batches of {@code batch-size} ids, and
+ * after each batch the thread sleeps so that it is busy at most {@code duty-cycle} of the
+ * time: when MongoDB slows down under foreground load, the reclaimer slows down with it.
+ */
+@Slf4j
+@Component
+public class JournalEntryReclaimer {
+
+    private static final Duration MIN_PAUSE = Duration.ofMillis(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final JournalEntryOwnerBackfill ownerBackfill;
+    private final JournalEntryArchive archive;
+    private final JournalStatsService statsService;
+    private final boolean scanEnabled;
+    private final Duration initialDelay;
+    private final Duration interval;
+    private final int batchSize;
+    private final double dutyCycle;
+    private final ScheduledExecutorService worker;
+    private final Counter deletedEntries;
+    private final Counter reclaimedBytes;
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private volatile ReclaimProgress progress = new ReclaimProgress(false, null, null, 0, 0, 0, 0);
+
+    public JournalEntryReclaimer(MongoTemplate mongoTemplate,
+                                 JournalEntryOwnerBackfill ownerBackfill,
+                                 JournalEntryArchive archive,
+                                 JournalStatsService statsService,
+                                 @Value("${journal.maintenance.orphan-reclaim.enabled:true}") boolean scanEnabled,
+                                 @Value("${journal.maintenance.orphan-reclaim.initial-delay:1m}") Duration initialDelay,
+                                 @Value("${journal.maintenance.orphan-reclaim.interval:24h}") Duration interval,
+                                 @Value("${journal.maintenance.orphan-reclaim.batch-size:500}") int batchSize,
+                                 @Value("${journal.maintenance.orphan-reclaim.duty-cycle:0.2}") double dutyCycle,
+                                 MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.ownerBackfill = ownerBackfill;
+        this.archive = archive;
+        this.statsService = statsService;
+        this.scanEnabled = scanEnabled;
+        this.initialDelay = initialDelay;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.dutyCycle = Math.max(0.01, Math.min(1.0, dutyCycle));
+        this.worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-entry-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deletedEntries = Counter.builder("journal.reclaim.entries")
+                .description("Journal entries deleted because their owner is gone")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("journal.reclaim.bytes")
+                .description("Estimated data and index bytes freed by deleting orphaned entries")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (scanEnabled) {
+            worker.scheduleWithFixedDelay(this::scanQuietly,
+                    initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // anything not deleted yet is found again by the next scan
+        worker.shutdownNow();
+    }
+
+    /**
+     * Queues the deletion of every entry of a user who has just been deleted.
+     */
+    public void reclaimOwner(ObjectId ownerId) {
+        worker.execute(() -> {
+            try {
+                long deleted = deleteOwner(ownerId, bytesPerEntry());
+                log.info("Deleted {} entries of removed user {}", deleted, ownerId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Cascade delete of user {}'s entries failed, the orphan scan will retry", ownerId, e);
+            }
+        });
+    }
+
+    /**
+     * @return false if a scan is already running
+     */
+    public boolean scanNow() {
+        if (scanning.get()) {
+            return false;
+        }
+        worker.execute(this::scanQuietly);
+        return true;
+    }
+
+    public ReclaimProgress getProgress() {
+        return progress;
+    }
+
+    private void scanQuietly() {
+        if (!scanning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scan();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Orphaned entry scan failed", e);
+        } finally {
+            if (progress.running()) {
+                progress = tally(progress.startedAt(), false, progress.ownersChecked(), progress.orphanedOwners(),
+                        progress.entriesDeleted(), progress.bytesReclaimed());
+            }
+            scanning.set(false);
+        }
+    }
+
+    void scan() throws InterruptedException {
+        long bytesPerEntry = bytesPerEntry();
+        progress = tally(LocalDateTime.now(), true, 0, 0, 0, 0);
+
+        boolean unowned = checkOwners(JournalEntry.class, bytesPerEntry);
+        // owners whose entries have all been archived only show up in the archive
+        checkOwners(JournalArchiveBlock.class, bytesPerEntry);
+        // before the owner backfill is done, entries without ownerId may still be claimed by it
+        long deleted = progress.entriesDeleted();
+        if (unowned && ownerBackfill.isCompleted()) {
+            deleted += deleteInBatches(Criteria.where("ownerId").is(null), bytesPerEntry);
+        }
+
+        progress = tally(progress.startedAt(), false, progress.ownersChecked(), progress.orphanedOwners(),
+                deleted, deleted * bytesPerEntry);
+        log.info("Orphan scan finished: {} owners checked, {} gone, {} entries deleted, ~{} bytes reclaimed",
+                progress.ownersChecked(), progress.orphanedOwners(), deleted, deleted * bytesPerEntry);
+    }
+
+    /**
+     * Walks the distinct owners of the collection in batches and deletes everything of those
+     * that no longer exist, adding up the progress as it goes.
+     * @return true if the collection has documents without an owner
+     */
+    private boolean checkOwners(Class<?> collection, long bytesPerEntry) throws InterruptedException {
+        long ownersChecked = progress.ownersChecked();
+        long orphanedOwners = progress.orphanedOwners();
+        long deleted = progress.entriesDeleted();
+
+        // $sort + $group on ownerId is answered from the ownerId index (a distinct scan)
+        Aggregation owners = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by("ownerId")),
+                Aggregation.group("ownerId"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(batchSize).build());
+        List<ObjectId> batch = new ArrayList<>(batchSize);
+        boolean unowned = false;
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(owners,
+                mongoTemplate.getCollectionName(collection), Document.class)) {
+            Iterator<Document> groups = stream.iterator();
+            while (groups.hasNext() || !batch.isEmpty()) {
+                if (groups.hasNext()) {
+                    if (groups.next().get("_id") instanceof ObjectId ownerId) {
+                        batch.add(ownerId);
+                    } else {
+                        unowned = true;
+                    }
+                    if (batch.size() < batchSize && groups.hasNext()) {
+                        continue;
+                    }
+                }
+                for (ObjectId orphaned : missingUsers(batch)) {
+                    orphanedOwners++;
+                    deleted += deleteOwner(orphaned, bytesPerEntry);
+                }
+                ownersChecked += batch.size();
+                batch.clear();
+                progress = tally(progress.startedAt(), true, ownersChecked, orphanedOwners, deleted, deleted * bytesPerEntry);
+                log.info("Orphan scan: {} owners checked, {} gone, {} entries deleted", ownersChecked, orphanedOwners, deleted);
+            }
+        }
+        return unowned;
+    }
+
+    // hot entries in throttled batches, then the owner's archive blocks in one go
+    private long deleteOwner(ObjectId ownerId, long bytesPerEntry) throws InterruptedException {
+        long deleted = deleteInBatches(Criteria.where("ownerId").is(ownerId), bytesPerEntry);
+        long archived = archive.deleteOwner(ownerId);
+        deletedEntries.increment(archived);
+        statsService.deleteOwner(ownerId);
+        return deleted + archived;
+    }
+
+    private List<ObjectId> missingUsers(List<ObjectId> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("_id").in(ownerIds));
+        query.fields().include("_id");
+        Set<ObjectId> existing = new HashSet<>();
+        for (Document user : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            existing.add(user.getObjectId("_id"));
+        }
+        List<ObjectId> missing = new ArrayList<>();
+        for (ObjectId ownerId : ownerIds) {
+            if (!existing.contains(ownerId)) {
+                missing.add(ownerId);
+            }
+        }
+        return missing;
+    }
+
+    private long deleteInBatches(Criteria criteria, long bytesPerEntry) throws InterruptedException {
+        long deleted = 0;
+        while (true) {
+            long started = System.nanoTime();
+            Query page = Query.query(criteria).limit(batchSize);
+            page.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(page, Document.class, mongoTemplate.getCollectionName(JournalEntry.class))
+                    .stream().map(doc -> doc.get("_id")).toList();
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            long removed = mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), JournalEntry.class).getDeletedCount();
+            deleted += removed;
+            deletedEntries.increment(removed);
+            reclaimedBytes.increment(removed * bytesPerEntry);
+            long busy = System.nanoTime() - started;
+            // sleep long enough that this thread stays under the duty cycle
+            long pause = Math.max(MIN_PAUSE.toNanos(), (long) (busy * (1 - dutyCycle) / dutyCycle));
+            TimeUnit.NANOSECONDS.sleep(pause);
+        }
+    }
+
+    private long bytesPerEntry() {
+        return CollectionStats.bytesPerDocument(mongoTemplate, mongoTemplate.getCollectionName(JournalEntry.class));
+    }
+
+    private static ReclaimProgress tally(LocalDateTime startedAt, boolean running, long ownersChecked,
+                                         long orphanedOwners, long deleted, long bytes) {
+        return new ReclaimProgress(running, startedAt, running ? null : LocalDateTime.now(),
+                ownersChecked, orphanedOwners, deleted, bytes);
+    }
+}
@@ -1,21 +1,98 @@
 package shoebdev.JournalAPP.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.mongodb.ReadPreference;
+
+import io.micrometer.core.annotation.Timed;
+import shoebdev.JournalAPP.dto.JournalChanges;
+import shoebdev.JournalAPP.dto.JournalCursor;
+import shoebdev.JournalAPP.dto.JournalEntryFields;
+import shoebdev.JournalAPP.dto.JournalEntryPage;
+import shoebdev.JournalAPP.dto.JournalEntrySummary;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
 import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+import shoebdev.JournalAPP.migration.JournalEntryLastModifiedBackfill;
 import shoebdev.JournalAPP.repository.JournalEntryRepository;
 
 @Component
+@Timed("journal.service")
 public class JournalEntryService {
 
     @Autowired
     private JournalEntryRepository journalEntryRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JournalEntryLastModifiedBackfill lastModifiedBackfill;
+
+    // cold tier: entries past journal.archive.age, read when the hot collection has no answer
+    @Autowired
+    private JournalEntryArchive archive;
+
+    @Autowired
+    private JournalStatsService statsService;
+
+    // journal.mongo.journal-reads: may send listing/streaming/search reads to secondaries
+    @Autowired
+    @Qualifier("journalReadPreference")
+    private ReadPreference journalReads;
+
+    // newest first, matching the (ownerId, date desc, _id desc) index so Mongo never sorts in memory
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("_id"));
+
+    // sorts before every real id, so a checkpoint at (t, MIN_ID) still returns all changes stamped t
+    private static final ObjectId MIN_ID = new ObjectId(new byte[12]);
+
+    private static final Comparator<JournalCursor> CHANGE_ORDER =
+            Comparator.comparing(JournalCursor::date).thenComparing(JournalCursor::id);
+
+    // NEWEST_FIRST in Java, for merging archived entries into a page; Mongo sorts a missing date last
+    private static final Comparator<JournalCursor> PAGE_ORDER =
+            Comparator.comparing(JournalCursor::date, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparing(JournalCursor::id).reversed();
+
+    // changes younger than this are left for the next sync call, see changesSince
+    @Value("${journal.sync.settle-time:2s}")
+    private Duration syncSettleTime;
+
     
 
 
@@ -23,6 +100,22 @@ public class JournalEntryService {
             journalEntryRepository.save(journalEntry);
     }
 
+    /**
+     * Inserts a new entry for the owner in a single write. Ids from the request body are
+     * ignored, and insert (unlike save) never turns into an update of an existing entry.
+     * No other document is touched, so parallel creates for one user cannot lose each other.
+     */
+    public JournalEntry createEntry(ObjectId ownerId, JournalEntry entry){
+        entry.setId(null);
+        entry.setOwnerId(ownerId);
+        entry.setDate(LocalDateTime.now());
+        entry.setVersion(1L);
+        entry.setLastModified(entry.getDate());
+        JournalEntry created = mongoTemplate.insert(entry);
+        statsService.entryCreated(created);
+        return created;
+    }
+
     public List<JournalEntry> getAll(){
         return journalEntryRepository.findAll();
     }
@@ -31,8 +124,367 @@ public class JournalEntryService {
         return journalEntryRepository.findById(id);
     }
 
+    public List<JournalEntry> findByOwner(ObjectId ownerId){
+        return journalEntryRepository.findByOwnerIdOrderByDateDesc(ownerId);
+    }
+
+    /**
+     * One keyset page of an owner's entries as summaries (id, title, date); content is
+     * projected away in Mongo. Reads limit + 1 documents to learn whether another page
+     * exists, so no count query is needed. Archived entries are merged in where they fall.
+     */
+    public JournalEntryPage<JournalEntrySummary> findSummaryPage(ObjectId ownerId, JournalCursor after, int limit){
+        Query query = Query.query(afterCursor(ownerId, after)).with(NEWEST_FIRST).limit(limit + 1)
+                .withReadPreference(journalReads);
+        List<JournalEntrySummary> hot = mongoTemplate.query(JournalEntry.class).as(JournalEntrySummary.class)
+                .matching(query).all();
+        List<JournalEntrySummary> archived = archived(ownerId, after, hot, limit,
+                JournalEntrySummary::date, entry -> new JournalEntrySummary(
+                        entry.getId().toHexString(), entry.getTitle(), entry.getDate(), entry.getVersion()));
+        return page(hot, archived, limit, summary -> new JournalCursor(summary.date(), new ObjectId(summary.id())));
+    }
+
+    /**
+     * Same keyset page, reading only the given {@link JournalEntryFields} (date, version and
+     * lastModified are always read for the cursor and validators). Other properties of the
+     * returned entries are null.
+     */
+    public JournalEntryPage<JournalEntry> findPage(ObjectId ownerId, JournalCursor after, int limit, Set<String> fields){
+        Query query = Query.query(afterCursor(ownerId, after)).with(NEWEST_FIRST).limit(limit + 1)
+                .withReadPreference(journalReads);
+        include(query, fields).fields().include("date");
+        List<JournalEntry> hot = mongoTemplate.find(query, JournalEntry.class);
+        List<JournalEntry> archived = archived(ownerId, after, hot, limit, JournalEntry::getDate, Function.identity());
+        return page(hot, archived, limit, entry -> new JournalCursor(entry.getDate(), entry.getId()));
+    }
+
+    // archived entries that could still make the page: when the hot read came back full, only
+    // those at or above its last entry
+    private <T> List<T> archived(ObjectId ownerId, JournalCursor after, List<T> hot, int limit,
+                                 Function<T, LocalDateTime> date, Function<JournalEntry, T> convert){
+        LocalDateTime notBefore = hot.size() > limit ? date.apply(hot.get(limit)) : null;
+        return archive.findPage(ownerId, after, notBefore, limit + 1).stream().map(convert).toList();
+    }
+
+    // hot and archived entries in page order; an id in both (an interrupted move) counts once, as the hot copy
+    private static <T> JournalEntryPage<T> page(List<T> hot, List<T> archived, int limit, Function<T, JournalCursor> key){
+        List<T> entries = hot;
+        if (!archived.isEmpty()) {
+            Map<ObjectId, T> merged = new LinkedHashMap<>();
+            hot.forEach(entry -> merged.put(key.apply(entry).id(), entry));
+            archived.forEach(entry -> merged.putIfAbsent(key.apply(entry).id(), entry));
+            entries = new ArrayList<>(merged.values());
+            entries.sort(Comparator.comparing(key, PAGE_ORDER));
+        }
+        if (entries.size() <= limit) {
+            return new JournalEntryPage<>(entries, null);
+        }
+        entries = entries.subList(0, limit);
+        return new JournalEntryPage<>(entries, key.apply(entries.get(limit - 1)).encode());
+    }
+
+    // _id and version are always included: a selection of just "id" still projects every other
+    // field away, and the version is what ETags are built from
+    private static Query include(Query query, Set<String> fields){
+        query.fields().include("_id", "version", "lastModified");
+        fields.stream().filter(field -> !field.equals("id")).forEach(query.fields()::include);
+        return query;
+    }
+
+    /**
+     * Lazily iterates an owner's entries newest first, merging a server-side cursor over the
+     * hot collection with the archive by (date, _id): entries edited recently stay hot however
+     * old they are. The caller must close the stream to release the cursors.
+     */
+    public Stream<JournalEntry> streamByOwner(ObjectId ownerId, JournalCursor after){
+        Query query = Query.query(afterCursor(ownerId, after)).with(NEWEST_FIRST).withReadPreference(journalReads);
+        return merge(mongoTemplate.stream(query, JournalEntry.class), archive.stream(ownerId, after));
+    }
+
+    /**
+     * Same as {@link #streamByOwner(ObjectId, JournalCursor)} but with an explicit getMore
+     * batch size, for bulk exports where fewer, larger round trips win.
+     */
+    public Stream<JournalEntry> streamByOwner(ObjectId ownerId, int cursorBatchSize){
+        Query query = Query.query(afterCursor(ownerId, null)).with(NEWEST_FIRST).cursorBatchSize(cursorBatchSize)
+                .withReadPreference(journalReads);
+        return merge(mongoTemplate.stream(query, JournalEntry.class), archive.stream(ownerId, null));
+    }
+
+    // two newest-first streams as one, pulling from whichever is ahead; closing it closes both
+    private static Stream<JournalEntry> merge(Stream<JournalEntry> hot, Stream<JournalEntry> archived){
+        Iterator<JournalEntry> hotEntries = hot.iterator();
+        Iterator<JournalEntry> archivedEntries = archived.iterator();
+        Iterator<JournalEntry> merged = new Iterator<>() {
+            private JournalEntry nextHot;
+            private JournalEntry nextArchived;
+
+            @Override
+            public boolean hasNext() {
+                if (nextHot == null && hotEntries.hasNext()) {
+                    nextHot = hotEntries.next();
+                }
+                if (nextArchived == null && archivedEntries.hasNext()) {
+                    nextArchived = archivedEntries.next();
+                }
+                return nextHot != null || nextArchived != null;
+            }
+
+            @Override
+            public JournalEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                JournalEntry entry;
+                if (nextArchived == null
+                        || (nextHot != null && JournalEntryArchive.NEWEST_FIRST.compare(nextHot, nextArchived) <= 0)) {
+                    entry = nextHot;
+                    nextHot = null;
+                } else {
+                    entry = nextArchived;
+                    nextArchived = null;
+                }
+                return entry;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(hot::close)
+                .onClose(archived::close);
+    }
+
+    private Criteria afterCursor(ObjectId ownerId, JournalCursor after){
+        Criteria criteria = Criteria.where("ownerId").is(ownerId);
+        if (after == null) {
+            return criteria;
+        }
+        return criteria.orOperator(
+                Criteria.where("date").lt(after.date()),
+                Criteria.where("date").is(after.date()).and("_id").lt(after.id()));
+    }
+
+    /**
+     * Entries-per-user distribution computed inside Mongo: count entries by owner in both
+     * tiers ($unionWith, MongoDB 4.4+; archive blocks carry their count), then summarise and
+     * bucket those per-owner counts. Only the small result leaves the server. Users without entries appear in
+     * neither collection, so callers derive that count from the user total.
+     */
+    public Document entriesPerUserStats(){
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("ownerId").exists(true)),
+                Aggregation.group("ownerId").count().as("entries"),
+                UnionWithOperation.unionWith(mongoTemplate.getCollectionName(JournalArchiveBlock.class))
+                        .pipeline(Aggregation.group("ownerId").sum("count").as("entries")),
+                Aggregation.group("_id").sum("entries").as("entries"),
+                Aggregation.facet(
+                        Aggregation.group()
+                                .count().as("usersWithEntries")
+                                .sum("entries").as("totalEntries")
+                                .avg("entries").as("avgEntries")
+                                .min("entries").as("minEntries")
+                                .max("entries").as("maxEntries")).as("summary")
+                        .and(Aggregation.bucket("entries")
+                                .withBoundaries(1, 2, 6, 11, 51, 101, 501, 1001, 5001, 10001)
+                                .withDefaultBucket("10001+")
+                                .andOutputCount().as("users")).as("distribution")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregate(aggregation, JournalEntry.class, Document.class).getUniqueMappedResult();
+    }
+
+    /**
+     * Full-text search over one owner's titles and content via the owner-prefixed text
+     * index, best matches first. Only the given fields (plus the score) are read. Fetches
+     * size + 1 so the caller can tell if more exist. Archived entries have no text index:
+     * their matches (see {@link JournalEntryArchive#search}) follow all hot ones, newest
+     * first, and come back whole without a score.
+     */
+    public List<JournalEntry> search(ObjectId ownerId, String text, LocalDateTime from, LocalDateTime to, int page, int size,
+                                     Set<String> fields){
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .addCriteria(Criteria.where("ownerId").is(ownerId));
+        if (from != null || to != null) {
+            Criteria date = Criteria.where("date");
+            if (from != null) {
+                date = date.gte(from);
+            }
+            if (to != null) {
+                date = date.lte(to);
+            }
+            query.addCriteria(date);
+        }
+        long skip = (long) page * size;
+        include(query, fields).skip(skip).limit(size + 1).withReadPreference(journalReads);
+        List<JournalEntry> hot = mongoTemplate.find(query, JournalEntry.class);
+        if (hot.size() > size) {
+            return hot;
+        }
+        // a short page means the hot matches ran out on it; before it only a count says how many there were
+        long hotTotal = hot.isEmpty() && skip > 0
+                ? mongoTemplate.count(Query.of(query).skip(0).limit(0), JournalEntry.class)
+                : skip + hot.size();
+        List<JournalEntry> results = new ArrayList<>(hot);
+        results.addAll(archive.search(ownerId, text, from, to, skip + hot.size() - hotTotal, size + 1 - hot.size()));
+        return results;
+    }
+
+    // scoped to the owner so one user can never resolve another user's entry id
+    public Optional<JournalEntry> findByIdAndOwner(ObjectId id, ObjectId ownerId){
+        return journalEntryRepository.findByIdAndOwnerId(id, ownerId).or(() -> archive.find(id, ownerId));
+    }
+
+    // archived entries come back whole; callers select the fields they asked for
+    public Optional<JournalEntry> findByIdAndOwner(ObjectId id, ObjectId ownerId, Set<String> fields){
+        Query query = include(Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId)), fields);
+        return Optional.ofNullable(mongoTemplate.findOne(query, JournalEntry.class)).or(() -> archive.find(id, ownerId));
+    }
+
+    // both tiers, since an interrupted move can leave a copy in each
     public void deleteById(ObjectId id){
-        journalEntryRepository.deleteById(id);
+        JournalEntry removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), JournalEntry.class);
+        JournalEntry archived = archive.remove(id, null);
+        if (removed == null) {
+            removed = archived;
+        }
+        if (removed != null && removed.getOwnerId() != null) {
+            tombstone(id, removed.getOwnerId());
+            statsService.entryDeleted(removed);
+        }
+    }
+
+    /**
+     * Applies the non-blank title/content as one atomic $set on the owner's entry. An archived
+     * entry is restored to the hot collection first.
+     * @return the updated entry, or null if the owner has no entry with this id
+     */
+    public JournalEntry updateFields(ObjectId id, ObjectId ownerId, String title, String content){
+        JournalEntry updated = applyUpdate(id, ownerId, title, content);
+        if (updated == null && archive.restore(id, ownerId)) {
+            updated = applyUpdate(id, ownerId, title, content);
+        }
+        return updated;
+    }
+
+    private JournalEntry applyUpdate(ObjectId id, ObjectId ownerId, String title, String content){
+        Query query = Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId));
+        String newTitle = title != null && !title.isBlank() ? title : null;
+        String newContent = content != null && !content.isBlank() ? content : null;
+        if (newTitle == null && newContent == null) {
+            return mongoTemplate.findOne(query, JournalEntry.class);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().inc("version", 1).set("lastModified", now);
+        if (newTitle != null) {
+            update.set("title", newTitle);
+        }
+        if (newContent != null) {
+            update.set("content", newContent);
+        }
+        // the previous version is returned: its content is what the word count changes from
+        JournalEntry entry = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false),
+                JournalEntry.class);
+        if (entry == null) {
+            return null;
+        }
+        if (newContent != null) {
+            statsService.contentChanged(ownerId, entry.getContent(), newContent);
+            entry.setContent(newContent);
+        }
+        if (newTitle != null) {
+            entry.setTitle(newTitle);
+        }
+        entry.setVersion(entry.getVersion() == null ? 1L : entry.getVersion() + 1);
+        entry.setLastModified(now);
+        return entry;
+    }
+
+    /**
+     * @return false if the owner has no entry with this id
+     */
+    public boolean deleteByIdAndOwner(ObjectId id, ObjectId ownerId){
+        Query query = Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId));
+        JournalEntry removed = mongoTemplate.findAndRemove(query, JournalEntry.class);
+        JournalEntry archived = archive.remove(id, ownerId);
+        if (removed == null) {
+            removed = archived;
+        }
+        if (removed == null) {
+            return false;
+        }
+        tombstone(id, ownerId);
+        statsService.entryDeleted(removed);
+        return true;
+    }
+
+    // written after the delete: a crash in between loses the sync notice, never the delete itself
+    private void tombstone(ObjectId id, ObjectId ownerId){
+        mongoTemplate.save(new JournalEntryTombstone(id, ownerId, LocalDateTime.now()));
+    }
+
+    /**
+     * One page of an owner's changes after the checkpoint, oldest first: created or updated
+     * entries (by lastModified) merged with deletes (tombstones by deletedAt). Both reads walk
+     * an (ownerId, timestamp, _id) index, so the cost follows the number of changes, not the
+     * journal size. Archived entries are merged in from blocks holding changes after the
+     * checkpoint, which after the first full sync is normally none.
+     *
+     * Changes younger than the settle time are held back until a later call: a write stamped
+     * just before a sync but committed just after it would otherwise sit behind the returned
+     * checkpoint and never be seen. Reads go to the primary for the same reason.
+     */
+    public JournalChanges changesSince(ObjectId ownerId, JournalCursor since, int limit){
+        // Mongo keeps milliseconds, so the horizon is compared (and handed out) at that precision
+        LocalDateTime horizon = LocalDateTime.now().minus(syncSettleTime).truncatedTo(ChronoUnit.MILLIS);
+        Query changedQuery = Query.query(afterCheckpoint(ownerId, "lastModified", since, horizon))
+                .with(Sort.by("lastModified", "_id")).limit(limit + 1);
+        List<JournalEntry> changed = new ArrayList<>(mongoTemplate.find(changedQuery, JournalEntry.class));
+        // archived entries keep the lastModified they were archived with, so a full sync still sees them
+        changed.addAll(archive.findChanged(ownerId, since, horizon, limit + 1));
+        changed.sort(JournalEntryArchive.OLDEST_CHANGE_FIRST);
+        Query deletedQuery = Query.query(afterCheckpoint(ownerId, "deletedAt", since, horizon))
+                .with(Sort.by("deletedAt", "_id")).limit(limit + 1);
+        List<JournalEntryTombstone> deleted = mongoTemplate.find(deletedQuery, JournalEntryTombstone.class);
+
+        List<JournalEntry> changedPage = new ArrayList<>();
+        List<JournalEntryTombstone> deletedPage = new ArrayList<>();
+        JournalCursor checkpoint = since;
+        int c = 0;
+        int d = 0;
+        while (c + d < limit && (c < changed.size() || d < deleted.size())) {
+            JournalCursor nextChanged = c < changed.size()
+                    ? new JournalCursor(changed.get(c).getLastModified(), changed.get(c).getId()) : null;
+            JournalCursor nextDeleted = d < deleted.size()
+                    ? new JournalCursor(deleted.get(d).getDeletedAt(), deleted.get(d).getId()) : null;
+            if (nextDeleted == null || (nextChanged != null && CHANGE_ORDER.compare(nextChanged, nextDeleted) < 0)) {
+                changedPage.add(changed.get(c++));
+                checkpoint = nextChanged;
+            } else {
+                deletedPage.add(deleted.get(d++));
+                checkpoint = nextDeleted;
+            }
+        }
+        // each list was read with limit + 1, so more than limit in total means some were left over
+        boolean hasMore = changed.size() + deleted.size() > limit;
+        if (!hasMore) {
+            // everything before the horizon has been returned: move up to it, so an idle journal's
+            // checkpoint keeps pace with the clock instead of ageing past the tombstone retention
+            checkpoint = new JournalCursor(horizon, MIN_ID);
+        }
+        return new JournalChanges(changedPage, deletedPage, checkpoint == null ? null : checkpoint.encode(), hasMore);
+    }
+
+    // sync finds entries by lastModified, so older entries must have been stamped first
+    public boolean isSyncAvailable(){
+        return lastModifiedBackfill.isCompleted();
+    }
+
+    private Criteria afterCheckpoint(ObjectId ownerId, String timestamp, JournalCursor since, LocalDateTime horizon){
+        Criteria criteria = Criteria.where("ownerId").is(ownerId).and(timestamp).lt(horizon);
+        if (since == null) {
+            return criteria;
+        }
+        return criteria.orOperator(
+                Criteria.where(timestamp).gt(since.date()),
+                Criteria.where(timestamp).is(since.date()).and("_id").gt(since.id()));
     }
 
 }
@@ -0,0 +1,325 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Optional write-behind for entry edits ({@code journal.write-behind.enabled}). An update is
+ * checked, acknowledged and parked in memory; further updates to the same entry within the
+ * window are merged into it, and every window the parked updates go out as one unordered
+ * bulk of $set operations, one per entry however many edits it absorbed.
+ *
+ * At most {@code max-pending} entries wait at a time; beyond that updates are written
+ * directly. Parked updates are flushed when the application shuts down, but a crash loses
+ * whatever was waiting, and until the flush reads still return the previous content.
+ */
+@Slf4j
+@Component
+public class JournalEntryWriteBehind {
+
+    private final MongoTemplate mongoTemplate;
+    private final JournalEntryArchive archive;
+    private final JournalStatsService statsService;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxPending;
+    private final int batchSize;
+    private final ConcurrentHashMap<ObjectId, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final Counter accepted;
+    private final Counter written;
+    private final Counter overflow;
+    private final Counter failed;
+    private final Timer flushLag;
+    private ScheduledExecutorService flusher;
+    private volatile boolean accepting;
+
+    public JournalEntryWriteBehind(MongoTemplate mongoTemplate,
+                                   JournalEntryArchive archive,
+                                   JournalStatsService statsService,
+                                   @Value("${journal.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${journal.write-behind.window:5s}") Duration window,
+                                   @Value("${journal.write-behind.max-pending:10000}") int maxPending,
+                                   @Value("${journal.write-behind.batch-size:500}") int batchSize,
+                                   MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.archive = archive;
+        this.statsService = statsService;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        // coalescing ratio = updates / writes
+        this.accepted = Counter.builder("journal.write.behind.updates")
+                .description("Entry updates acknowledged and parked for write-behind")
+                .register(meterRegistry);
+        this.written = Counter.builder("journal.write.behind.writes")
+                .description("Entry documents written by write-behind flushes")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("journal.write.behind.overflow")
+                .description("Updates written directly because max-pending entries were already waiting")
+                .register(meterRegistry);
+        this.failed = Counter.builder("journal.write.behind.failed")
+                .description("Flushes that failed in whole or in part, the failed updates put back for the next one")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("journal.write.behind.lag")
+                .description("Time from an entry's first parked update to its flush")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("journal.write.behind.pending", pending, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = window.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        accepting = true;
+    }
+
+    /**
+     * Runs before the MongoTemplate is closed: stops taking updates, then writes out all of them.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        accepting = false;
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("Write-behind shutdown: {} entry updates could not be written", pending.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return accepting;
+    }
+
+    /**
+     * Parks the non-blank title/content for the owner's entry, merged with any update to it
+     * that is still waiting.
+     *
+     * @return false if the owner has no entry with this id
+     */
+    public boolean submit(ObjectId id, ObjectId ownerId, String title, String content) {
+        String newTitle = title != null && !title.isBlank() ? title : null;
+        String newContent = content != null && !content.isBlank() ? content : null;
+        if (newTitle == null && newContent == null) {
+            return isHot(id, ownerId);
+        }
+        PendingUpdate waiting = pending.get(id);
+        // only the first update in a window pays for the existence check
+        if (waiting == null || !waiting.ownerId().equals(ownerId)) {
+            if (!isHot(id, ownerId)) {
+                return false;
+            }
+            if (waiting == null && pending.size() >= maxPending) {
+                overflow.increment();
+                write(List.of(new PendingUpdate(id, ownerId, newTitle, newContent, System.nanoTime())));
+                return true;
+            }
+        }
+        pending.merge(id, new PendingUpdate(id, ownerId, newTitle, newContent, System.nanoTime()), PendingUpdate::then);
+        accepted.increment();
+        if (!accepting) {
+            // raced with shutdown: the final flush may already have run
+            flush();
+        }
+        return true;
+    }
+
+    void flush() {
+        List<PendingUpdate> batch = new ArrayList<>(batchSize);
+        for (ObjectId id : new ArrayList<>(pending.keySet())) {
+            // anything merged in after this remove starts a new pending update for the next flush
+            PendingUpdate update = pending.remove(id);
+            if (update == null) {
+                continue;
+            }
+            batch.add(update);
+            if (batch.size() == batchSize) {
+                writeOrRequeue(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeOrRequeue(batch);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    private void writeOrRequeue(List<PendingUpdate> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Write-behind flush of {} entries failed, retrying with the next one", batch.size(), e);
+            batch.forEach(this::requeue);
+        }
+    }
+
+    // newer updates that arrived meanwhile keep precedence over the one being put back
+    private void requeue(PendingUpdate update) {
+        pending.merge(update.id(), update, (newer, older) -> older.then(newer));
+    }
+
+    private void write(List<PendingUpdate> batch) {
+        Map<ObjectId, String> previousContent = previousContent(batch);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class);
+        // stamped at write time: sync checkpoints must never pass a change before it is visible
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingUpdate update : batch) {
+            Update set = new Update().inc("version", 1).set("lastModified", now);
+            if (update.title() != null) {
+                set.set("title", update.title());
+            }
+            if (update.content() != null) {
+                set.set("content", update.content());
+            }
+            bulk.updateOne(ownerQuery(update.id(), update.ownerId()), set);
+        }
+        List<PendingUpdate> applied = batch;
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            // unordered: the rest of the batch was still written, so only the failed updates go back
+            result = e.getResult();
+            Set<Integer> failedAt = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failedAt.add(error.getIndex());
+            }
+            applied = new ArrayList<>(batch.size() - failedAt.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (failedAt.contains(i)) {
+                    requeue(batch.get(i));
+                } else {
+                    applied.add(batch.get(i));
+                }
+            }
+            failed.increment();
+            log.warn("Write-behind flush: {} of {} entry updates failed, retrying them with the next one",
+                    failedAt.size(), batch.size(), e);
+        }
+        Set<ObjectId> missed = result.getMatchedCount() < applied.size() ? notHot(applied) : Set.of();
+        long flushedAt = System.nanoTime();
+        for (PendingUpdate update : applied) {
+            if (missed.contains(update.id())) {
+                requeueMissed(update);
+                continue;
+            }
+            if (previousContent.containsKey(update.id())) {
+                statsService.contentChanged(update.ownerId(), previousContent.get(update.id()), update.content());
+            }
+            flushLag.record(flushedAt - update.firstQueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        written.increment(applied.size() - missed.size());
+    }
+
+    // ids of the batch no longer in the hot collection, which their updates did not match
+    private Set<ObjectId> notHot(List<PendingUpdate> batch) {
+        Set<ObjectId> missed = new HashSet<>();
+        batch.forEach(update -> missed.add(update.id()));
+        Query query = Query.query(Criteria.where("_id").in(missed));
+        query.fields().include("_id");
+        for (Document doc : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(JournalEntry.class))) {
+            missed.remove(doc.getObjectId("_id"));
+        }
+        return missed;
+    }
+
+    // archived since it was parked: moved back and retried with the next flush; deleted: the delete wins
+    private void requeueMissed(PendingUpdate update) {
+        if (archive.restore(update.id(), update.ownerId())) {
+            requeue(update);
+        } else {
+            log.info("Write-behind update of entry {} dropped: the entry was deleted before the flush", update.id());
+        }
+    }
+
+    // content being replaced, read in one query so the flush can move the owners' word counts
+    private Map<ObjectId, String> previousContent(List<PendingUpdate> batch) {
+        List<ObjectId> ids = batch.stream().filter(update -> update.content() != null).map(PendingUpdate::id).toList();
+        Map<ObjectId, String> contents = new HashMap<>();
+        if (ids.isEmpty()) {
+            return contents;
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("content");
+        for (Document doc : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(JournalEntry.class))) {
+            contents.put(doc.getObjectId("_id"), doc.getString("content"));
+        }
+        return contents;
+    }
+
+    // archived entries are moved back first: the flush only updates the hot collection
+    private boolean isHot(ObjectId id, ObjectId ownerId) {
+        return mongoTemplate.exists(ownerQuery(id, ownerId), JournalEntry.class) || archive.restore(id, ownerId);
+    }
+
+    private static Query ownerQuery(ObjectId id, ObjectId ownerId) {
+        return Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId));
+    }
+
+    /**
+     * The latest value of each field across the updates merged into it.
+     */
+    private record PendingUpdate(ObjectId id, ObjectId ownerId, String title, String content, long firstQueuedNanos) {
+
+        PendingUpdate then(PendingUpdate newer) {
+            return new PendingUpdate(id, newer.ownerId,
+                    newer.title != null ? newer.title : title,
+                    newer.content != null ? newer.content : content,
+                    Math.min(firstQueuedNanos, newer.firstQueuedNanos));
+        }
+    }
+}
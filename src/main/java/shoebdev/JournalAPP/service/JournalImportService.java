@@ -0,0 +1,143 @@
+package shoebdev.JournalAPP.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.annotation.Timed;
+
+import shoebdev.JournalAPP.dto.ImportResult;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Streams NDJSON journal entries into Mongo. Lines are parsed and validated one at a time
+ * and written in unordered bulk batches, so memory stays at one batch whatever the upload
+ * size, and one bad line never blocks the rest of its batch.
+ */
+@Service
+@Timed("journal.service")
+public class JournalImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalStatsService statsService;
+
+    @Value("${journal.import.batch-size:500}")
+    private int batchSize;
+
+    public ImportResult importEntries(ObjectId ownerId, InputStream ndjson) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(JournalEntry.class);
+        Progress progress = new Progress();
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.lines++;
+                JournalEntry entry;
+                try {
+                    entry = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    progress.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (entry.getTitle() == null || entry.getTitle().isBlank()) {
+                    progress.fail(lineNumber, "title is required");
+                    continue;
+                }
+                // ids are assigned here so bulk errors can be traced back to their line
+                entry.setId(new ObjectId());
+                entry.setOwnerId(ownerId);
+                if (entry.getDate() == null) {
+                    entry.setDate(LocalDateTime.now());
+                }
+                entry.setVersion(1L);
+                entry.setLastModified(LocalDateTime.now());
+                batch.add(entry);
+                batchLines.add(lineNumber);
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchLines, progress);
+                }
+            }
+        }
+        flush(batch, batchLines, progress);
+        return new ImportResult(progress.lines, progress.imported, progress.failed, progress.errors,
+                progress.failed > progress.errors.size());
+    }
+
+    private void flush(List<JournalEntry> batch, List<Long> batchLines, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<JournalEntry> inserted = batch;
+        try {
+            progress.imported += mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class)
+                    .insert(batch)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            progress.imported += e.getResult().getInsertedCount();
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                progress.fail(batchLines.get(error.getIndex()), error.getMessage());
+                failed.add(error.getIndex());
+            }
+            inserted = new ArrayList<>(batch.size() - failed.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!failed.contains(i)) {
+                    inserted.add(batch.get(i));
+                }
+            }
+        }
+        // one stats update per batch, with every day the batch touched
+        statsService.entriesCreated(batch.get(0).getOwnerId(), inserted);
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private static final class Progress {
+        long lines;
+        long imported;
+        long failed;
+        final List<ImportResult.LineError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.LineError(line, message));
+            }
+        }
+    }
+}
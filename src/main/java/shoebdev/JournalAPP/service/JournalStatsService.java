@@ -0,0 +1,380 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import shoebdev.JournalAPP.dto.JournalStatsSummary;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalStats;
+import shoebdev.JournalAPP.entity.User;
+
+/**
+ * Per-user journal statistics ({@link JournalStats}): entry and word counts and entries per
+ * day. Entry writes adjust them with one $inc each, so reading them is one document fetch
+ * however large the journal is.
+ *
+ * The entry write and the $inc are separate writes, so a crash or a failed $inc between
+ * them leaves the totals off. A background job ({@code journal.stats.rebuild.*}) recomputes
+ * every user's document from scratch with an aggregation over their entries (plus the day
+ * and word totals stored on their archive blocks) and counts the documents it had to
+ * correct. A user without a document yet gets it rebuilt on first use.
+ */
+@Slf4j
+@Component
+public class JournalStatsService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final Duration MIN_PAUSE = Duration.ofMillis(10);
+
+    // word separators, the same in countWords and the rebuild pipeline
+    private static final List<String> SEPARATORS = List.of(" ", "\t", "\n", "\r");
+
+    private final MongoTemplate mongoTemplate;
+    private final JournalEntryArchive archive;
+    private final boolean rebuildEnabled;
+    private final Duration initialDelay;
+    private final Duration interval;
+    private final double dutyCycle;
+    private final Duration settleTime;
+    private final ScheduledExecutorService worker;
+    private final Counter rebuilt;
+    private final Counter drifted;
+    private final Counter failed;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public JournalStatsService(MongoTemplate mongoTemplate,
+                               JournalEntryArchive archive,
+                               @Value("${journal.stats.rebuild.enabled:true}") boolean rebuildEnabled,
+                               @Value("${journal.stats.rebuild.initial-delay:10m}") Duration initialDelay,
+                               @Value("${journal.stats.rebuild.interval:24h}") Duration interval,
+                               @Value("${journal.stats.rebuild.duty-cycle:0.2}") double dutyCycle,
+                               @Value("${journal.stats.rebuild.settle-time:5s}") Duration settleTime,
+                               MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.archive = archive;
+        this.rebuildEnabled = rebuildEnabled;
+        this.initialDelay = initialDelay;
+        this.interval = interval;
+        this.dutyCycle = Math.max(0.01, Math.min(1.0, dutyCycle));
+        this.settleTime = settleTime;
+        this.worker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-stats-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rebuilt = Counter.builder("journal.stats.rebuilt")
+                .description("Per-user stats documents recomputed from the entries")
+                .register(meterRegistry);
+        this.drifted = Counter.builder("journal.stats.drift")
+                .description("Rebuilt stats documents whose incremental totals were off")
+                .register(meterRegistry);
+        this.failed = Counter.builder("journal.stats.failed")
+                .description("Incremental stats updates that failed and wait for the next rebuild")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (rebuildEnabled) {
+            worker.scheduleWithFixedDelay(this::rebuildAllQuietly,
+                    initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    public JournalStatsSummary get(ObjectId ownerId) {
+        JournalStats stats = mongoTemplate.findById(ownerId, JournalStats.class);
+        if (stats == null) {
+            stats = rebuild(ownerId);
+        }
+        return JournalStatsSummary.of(stats, LocalDate.now());
+    }
+
+    public void entryCreated(JournalEntry entry) {
+        entriesCreated(entry.getOwnerId(), List.of(entry));
+    }
+
+    public void entriesCreated(ObjectId ownerId, List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        apply(ownerId, created(entries));
+    }
+
+    public void contentChanged(ObjectId ownerId, String before, String after) {
+        long delta = countWords(after) - countWords(before);
+        if (delta != 0) {
+            apply(ownerId, new Update().inc("words", delta));
+        }
+    }
+
+    public void entryDeleted(JournalEntry entry) {
+        String day = entry.getDate() == null ? null : day(entry.getDate());
+        if (apply(entry.getOwnerId(), deleted(entry)) && day != null) {
+            // keep days to the ones with entries; left behind, a zero is only skipped on read
+            try {
+                mongoTemplate.updateFirst(emptiedDay(entry.getOwnerId(), day), new Update().unset("days." + day),
+                        JournalStats.class);
+            } catch (RuntimeException e) {
+                log.debug("Could not drop the emptied day {} of user {}", day, entry.getOwnerId(), e);
+            }
+        }
+    }
+
+    // the increments of each hook, shared with ReactiveJournalStats
+    static Update created(List<JournalEntry> entries) {
+        Update update = new Update().inc("entries", entries.size());
+        long words = 0;
+        Map<String, Long> days = new HashMap<>();
+        for (JournalEntry entry : entries) {
+            words += countWords(entry.getContent());
+            if (entry.getDate() != null) {
+                days.merge(day(entry.getDate()), 1L, Long::sum);
+            }
+        }
+        update.inc("words", words);
+        days.forEach((day, count) -> update.inc("days." + day, count));
+        return update;
+    }
+
+    static Update deleted(JournalEntry entry) {
+        Update update = new Update().inc("entries", -1).inc("words", -countWords(entry.getContent()));
+        if (entry.getDate() != null) {
+            update.inc("days." + day(entry.getDate()), -1);
+        }
+        return update;
+    }
+
+    static Query emptiedDay(ObjectId ownerId, String day) {
+        return Query.query(Criteria.where("_id").is(ownerId).and("days." + day).lte(0));
+    }
+
+    public void deleteOwner(ObjectId ownerId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(ownerId)), JournalStats.class);
+    }
+
+    // the entry write has already happened, so a failure here must not fail the request
+    private boolean apply(ObjectId ownerId, Update update) {
+        try {
+            update.set("updatedAt", LocalDateTime.now());
+            Query query = Query.query(Criteria.where("_id").is(ownerId));
+            if (mongoTemplate.updateFirst(query, update, JournalStats.class).getMatchedCount() > 0) {
+                return true;
+            }
+            // no document yet: build it from the entries, which already include this write
+            rebuild(ownerId);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Stats update for user {} failed, the next rebuild corrects it", ownerId, e);
+        }
+        return false;
+    }
+
+    /**
+     * Recomputes the owner's document from their entries and archive blocks. Increments that
+     * land meanwhile bump the revision, and the rebuild starts over rather than overwrite them.
+     *
+     * An entry written just before the aggregation may still have its $inc on the way, and
+     * would be counted twice if that landed after the save. So before correcting a document
+     * that disagrees with the aggregation, the rebuild waits out the settle time: a late
+     * increment then bumps the revision first and the rebuild reads it back.
+     */
+    public JournalStats rebuild(ObjectId ownerId) {
+        for (int attempt = 1; ; attempt++) {
+            JournalStats current = mongoTemplate.findById(ownerId, JournalStats.class);
+            JournalStats fresh = compute(ownerId);
+            boolean drift = current != null && (current.getEntries() != fresh.getEntries()
+                    || current.getWords() != fresh.getWords() || !Objects.equals(current.getDays(), fresh.getDays()));
+            if (drift && !settleTime.isZero()) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(settleTime.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return current;
+                }
+            }
+            fresh.setRevision(current == null ? null : current.getRevision());
+            try {
+                fresh = mongoTemplate.save(fresh);
+                rebuilt.increment();
+                if (drift) {
+                    drifted.increment();
+                }
+                return fresh;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    // writes keep racing it; whatever they left is no worse than before
+                    JournalStats latest = mongoTemplate.findById(ownerId, JournalStats.class);
+                    return latest != null ? latest : fresh;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false if a rebuild of all users is already running
+     */
+    public boolean rebuildAllNow() {
+        if (rebuilding.get()) {
+            return false;
+        }
+        worker.execute(this::rebuildAllQuietly);
+        return true;
+    }
+
+    private void rebuildAllQuietly() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildAll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Stats rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    void rebuildAll() throws InterruptedException {
+        double driftedBefore = drifted.count();
+        long users = 0;
+        Query query = new Query();
+        query.fields().include("_id");
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(User.class))) {
+            Iterator<Document> it = stream.iterator();
+            while (it.hasNext()) {
+                long started = System.nanoTime();
+                rebuild(it.next().getObjectId("_id"));
+                users++;
+                long busy = System.nanoTime() - started;
+                // sleep long enough that this thread stays under the duty cycle
+                TimeUnit.NANOSECONDS.sleep(Math.max(MIN_PAUSE.toNanos(), (long) (busy * (1 - dutyCycle) / dutyCycle)));
+            }
+        }
+        log.info("Stats rebuild finished: {} users, {} corrected", users, (long) (drifted.count() - driftedBefore));
+    }
+
+    private JournalStats compute(ObjectId ownerId) {
+        JournalStats stats = new JournalStats();
+        stats.setOwnerId(ownerId);
+        Map<String, Long> days = new HashMap<>();
+        long entries = 0;
+        long words = 0;
+
+        // per day: entries and words, counted inside Mongo so only one row per day comes back
+        Aggregation perDay = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("ownerId").is(ownerId)),
+                context -> new Document("$project", new Document("_id", 0)
+                        .append("day", new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                                .append("date", "$date")
+                                .append("timezone", ZoneId.systemDefault().getId())))
+                        .append("words", wordCount("$content"))),
+                context -> new Document("$group", new Document("_id", "$day")
+                        .append("entries", new Document("$sum", 1))
+                        .append("words", new Document("$sum", "$words"))));
+        for (Document day : mongoTemplate.aggregate(perDay, mongoTemplate.getCollectionName(JournalEntry.class),
+                Document.class)) {
+            long count = ((Number) day.get("entries")).longValue();
+            entries += count;
+            words += ((Number) day.get("words")).longValue();
+            if (day.getString("_id") != null) {
+                days.merge(day.getString("_id"), count, Long::sum);
+            }
+        }
+
+        // archived entries carry their totals on the block, outside the compressed data
+        Query blocks = Query.query(Criteria.where("ownerId").is(ownerId));
+        blocks.fields().exclude("data");
+        for (JournalArchiveBlock block : mongoTemplate.find(blocks, JournalArchiveBlock.class)) {
+            if (block.getDays() == null) {
+                // archived before blocks carried totals
+                block = mongoTemplate.findById(block.getId(), JournalArchiveBlock.class);
+                JournalEntryArchive.summarize(block, archive.decode(block));
+            }
+            entries += block.getCount();
+            words += block.getWords();
+            block.getDays().forEach((day, count) -> days.merge(day, count, Long::sum));
+        }
+
+        stats.setEntries(entries);
+        stats.setWords(words);
+        stats.setDays(days);
+        stats.setUpdatedAt(LocalDateTime.now());
+        stats.setRebuiltAt(stats.getUpdatedAt());
+        return stats;
+    }
+
+    // non-empty runs between SEPARATORS, as countWords: split on each separator in turn, drop empty pieces
+    private static Document wordCount(String text) {
+        Object pieces = List.of(new Document("$ifNull", List.of(text, "")));
+        for (String separator : SEPARATORS) {
+            pieces = new Document("$reduce", new Document("input", pieces)
+                    .append("initialValue", List.of())
+                    .append("in", new Document("$concatArrays",
+                            List.of("$$value", new Document("$split", List.of("$$this", separator))))));
+        }
+        return new Document("$size", new Document("$filter", new Document("input", pieces)
+                .append("as", "word")
+                .append("cond", new Document("$ne", List.of("$$word", "")))));
+    }
+
+    static int countWords(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean separator = c == ' ' || c == '\t' || c == '\n' || c == '\r';
+            if (!separator && !inWord) {
+                words++;
+            }
+            inWord = !separator;
+        }
+        return words;
+    }
+
+    static String day(LocalDateTime date) {
+        return date.toLocalDate().toString();
+    }
+}
@@ -0,0 +1,108 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * The reads and by-id operations of {@link JournalEntryArchive} for the reactive app:
+ * streaming an owner's archived entries, and reading, restoring and removing a single one,
+ * on the same blocks and with the same optimistic rewrites. Imported by {@code JournalReactiveApplication}, not component-scanned.
+ */
+public class ReactiveJournalArchive {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveJournalArchive(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<JournalEntry> find(ObjectId id, ObjectId ownerId) {
+        return mongoTemplate.findOne(JournalEntryArchive.blockOf(id, ownerId), JournalArchiveBlock.class)
+                .flatMap(block -> Mono.justOrEmpty(JournalEntryArchive.decode(mongoTemplate.getConverter(), block).stream()
+                        .filter(entry -> entry.getId().equals(id))
+                        .findFirst()));
+    }
+
+    /**
+     * The owner's archived entries, newest first. Blocks are read newest first and
+     * decompressed a run of date-overlapping blocks at a time, as the subscriber requests.
+     * Unlike {@link JournalEntryArchive#stream} this does not leave out ids that are also
+     * hot; merged with the hot listing, such a copy sits right next to the hot one.
+     */
+    public Flux<JournalEntry> stream(ObjectId ownerId) {
+        Query query = Query.query(Criteria.where("ownerId").is(ownerId)).with(Sort.by(Sort.Direction.DESC, "newest"));
+        return Flux.defer(() -> mongoTemplate.find(query, JournalArchiveBlock.class)
+                .bufferUntil(JournalEntryArchive.startsNewestFirstRun(), true)
+                .concatMapIterable(run -> {
+                    List<JournalEntry> entries = new ArrayList<>();
+                    run.forEach(block -> entries.addAll(JournalEntryArchive.decode(mongoTemplate.getConverter(), block)));
+                    entries.sort(JournalEntryArchive.NEWEST_FIRST);
+                    return entries;
+                }));
+    }
+
+    /**
+     * Moves an archived entry of the owner back to the hot collection, stamped as modified
+     * now, as {@link JournalEntryArchive#restore} does.
+     * @return false if the archive has no such entry either
+     */
+    public Mono<Boolean> restore(ObjectId id, ObjectId ownerId) {
+        return take(id, ownerId, archived -> {
+            archived.setLastModified(LocalDateTime.now());
+            // an earlier restore got this far and then failed to rewrite the block
+            return mongoTemplate.insert(archived).onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+        }).hasElement();
+    }
+
+    /**
+     * Deletes an archived entry of the owner.
+     * @return the deleted entry, or empty if the archive has no such entry
+     */
+    public Mono<JournalEntry> remove(ObjectId id, ObjectId ownerId) {
+        return take(id, ownerId, archived -> Mono.empty());
+    }
+
+    // finds the entry's block, hands the entry to beforeRewrite, then rewrites the block without it
+    private Mono<JournalEntry> take(ObjectId id, ObjectId ownerId, Function<JournalEntry, Mono<?>> beforeRewrite) {
+        return Mono.defer(() -> mongoTemplate.findOne(JournalEntryArchive.blockOf(id, ownerId), JournalArchiveBlock.class))
+                .flatMap(block -> {
+                    List<JournalEntry> entries = JournalEntryArchive.decode(mongoTemplate.getConverter(), block);
+                    JournalEntry taken = entries.stream().filter(entry -> entry.getId().equals(id)).findFirst().orElse(null);
+                    if (taken == null) {
+                        return Mono.empty();
+                    }
+                    entries.remove(taken);
+                    return beforeRewrite.apply(taken).then(Mono.defer(() -> rewrite(block, entries))).thenReturn(taken);
+                })
+                // blocks are rewritten whole under their @Version; on a conflict the block is read again
+                .retryWhen(Retry.max(JournalEntryArchive.MAX_ATTEMPTS - 1)
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<Void> rewrite(JournalArchiveBlock block, List<JournalEntry> entries) {
+        if (!entries.isEmpty()) {
+            JournalEntryArchive.fill(mongoTemplate.getConverter(), block, entries);
+            return mongoTemplate.save(block).then();
+        }
+        return mongoTemplate.remove(block).flatMap(result -> result.getDeletedCount() == 0
+                ? Mono.error(new OptimisticLockingFailureException("Archive block " + block.getId() + " changed concurrently"))
+                : Mono.empty());
+    }
+}
@@ -0,0 +1,67 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalStats;
+
+/**
+ * The {@link JournalStatsService} write hooks for the reactive app: the same $inc on the
+ * owner's stats document, without blocking. A missing document is left for the servlet
+ * app to build on first read, and failures only log, as the rebuild corrects them.
+ * Imported by {@code JournalReactiveApplication}, not component-scanned.
+ */
+@Slf4j
+public class ReactiveJournalStats {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveJournalStats(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<Void> entryCreated(JournalEntry entry) {
+        return apply(entry.getOwnerId(), JournalStatsService.created(List.of(entry))).then();
+    }
+
+    public Mono<Void> contentChanged(ObjectId ownerId, String before, String after) {
+        long delta = JournalStatsService.countWords(after) - JournalStatsService.countWords(before);
+        return delta == 0 ? Mono.empty() : apply(ownerId, new Update().inc("words", delta)).then();
+    }
+
+    public Mono<Void> entryDeleted(JournalEntry entry) {
+        Mono<Boolean> applied = apply(entry.getOwnerId(), JournalStatsService.deleted(entry));
+        if (entry.getDate() == null) {
+            return applied.then();
+        }
+        String day = JournalStatsService.day(entry.getDate());
+        return applied.filter(Boolean::booleanValue)
+                .flatMap(ok -> mongoTemplate.updateFirst(JournalStatsService.emptiedDay(entry.getOwnerId(), day),
+                        new Update().unset("days." + day), JournalStats.class))
+                .onErrorResume(e -> {
+                    log.debug("Could not drop the emptied day {} of user {}", day, entry.getOwnerId(), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // the entry write has already happened, so a failure here must not fail the request
+    private Mono<Boolean> apply(ObjectId ownerId, Update update) {
+        update.set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(ownerId)), update, JournalStats.class)
+                .map(result -> result.getMatchedCount() > 0)
+                .onErrorResume(e -> {
+                    log.warn("Stats update for user {} failed, the next rebuild corrects it", ownerId, e);
+                    return Mono.just(false);
+                });
+    }
+}
@@ -1,33 +1,50 @@
 package shoebdev.JournalAPP.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import shoebdev.JournalAPP.entity.User;
-import shoebdev.JournalAPP.repository.UserRepository;
+import shoebdev.JournalAPP.security.JournalUserDetails;
 
 @Component
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Timed("journal.service")
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
+    // goes through UserService so logins share its user cache with the controllers
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUserName(username);
+        // UserService also runs the owner backfill check; controllers trust the principal's id for ownership
+        User user = userService.findByUserName(username);
         if(user != null){
-           UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-            .username(user.getUserName())
-            .password(user.getPassword())
-            .roles(user.getRoles().toArray(new String[0]))
-            .build();
+           // same ROLE_ prefixing as User.builder().roles(...)
+           UserDetails userDetails = new JournalUserDetails(
+            user.getId(),
+            user.getUserName(),
+            user.getPassword(),
+            AuthorityUtils.createAuthorityList(user.getRoles().stream().map(role -> "ROLE_" + role).toArray(String[]::new)));
 
             return userDetails;
         }
       throw new UsernameNotFoundException("User not found with username: " + username);
     }
-    
+
+    /**
+     * Called by the authentication provider after a login whose stored hash has an outdated
+     * cost factor, with the password freshly encoded at the current cost.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        JournalUserDetails details = (JournalUserDetails) user;
+        userService.updatePassword(details.getId(), newPassword);
+        return new JournalUserDetails(details.getId(), details.getUsername(), newPassword, details.getAuthorities());
+    }
 
 }
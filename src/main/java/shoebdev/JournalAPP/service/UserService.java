@@ -1,39 +1,111 @@
 package shoebdev.JournalAPP.service;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
+import shoebdev.JournalAPP.dto.UserSummary;
 import shoebdev.JournalAPP.entity.User; // import the User entity
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
 import shoebdev.JournalAPP.repository.UserRepository;
+import shoebdev.JournalAPP.security.CredentialCache;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("journal.service")
 public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    private static final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JournalEntryOwnerBackfill ownerBackfill;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private UserSnapshotCache userCache;
+
+    @Autowired
+    private JournalEntryReclaimer entryReclaimer;
+
+    // BoundedPasswordEncoder: hashing runs on the bounded BCrypt pool, not the request thread
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     // ...existing code...
     public void saveEntry(User user){
+        // a full-document save would drop a not-yet-migrated journalEntries array
+        ownerBackfill.ensureMigrated(user.getId());
+        user.setLastModified(LocalDateTime.now());
         userRepository.save(user);
+        // password, roles or userName may have changed; make the next login do a full check
+        credentialCache.invalidateUser(user.getId());
+        credentialCache.invalidate(user.getUserName());
+        userCache.invalidateUser(user.getId());
+        userCache.invalidate(user.getUserName());
     }
 
     public void saveNewUser(User user){
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRoles(Arrays.asList("USER"));
+        user.setLastModified(LocalDateTime.now());
         userRepository.save(user);
+        credentialCache.invalidate(user.getUserName());
+        userCache.invalidate(user.getUserName());
     }
 
     public void saveNewAdmin(User user){
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRoles(Arrays.asList("ADMIN"));
+        user.setLastModified(LocalDateTime.now());
         userRepository.save(user);
+        credentialCache.invalidate(user.getUserName());
+        userCache.invalidate(user.getUserName());
+    }
+
+    /**
+     * Replaces only the stored password hash, e.g. when a login re-hashes at a higher cost.
+     */
+    public void updatePassword(ObjectId id, String encodedPassword){
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+                new Update().set("password", encodedPassword).set("lastModified", LocalDateTime.now()), User.class);
+        credentialCache.invalidateUser(id);
+        userCache.invalidateUser(id);
+    }
+
+    /**
+     * Renames a user with a targeted $set, leaving password and roles as stored: the caller's
+     * copy may come from {@link UserSnapshotCache} and predate a change made on another instance.
+     * @return the user as stored after the rename, or null if there is no such user
+     */
+    public User updateUserName(ObjectId id, String oldUserName, String newUserName){
+        User updated = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)),
+                new Update().set("userName", newUserName).set("lastModified", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        credentialCache.invalidateUser(id);
+        credentialCache.invalidate(oldUserName);
+        userCache.invalidateUser(id);
+        userCache.invalidate(oldUserName);
+        userCache.invalidate(newUserName);
+        return updated;
     }
 
     /**
@@ -54,25 +126,87 @@ public class UserService {
      * Check if user exists by username
      */
     public boolean existsByUserName(String userName) {
-        return userRepository.findByUserName(userName) != null;
+        return findByUserName(userName) != null;
     }
 
     public List<User> getAll(){
         return userRepository.findAll();
     }
 
+    /**
+     * exact uses countDocuments; otherwise the collection metadata estimate, which is O(1)
+     */
+    public long countUsers(boolean exact){
+        return exact ? userRepository.count() : mongoTemplate.estimatedCount(User.class);
+    }
+
+    /**
+     * One page of users ordered by id, reading only id, userName and roles from Mongo.
+     * The slice fetches one extra row to tell whether another page exists, without a count.
+     */
+    public Slice<UserSummary> findSummaries(int page, int size){
+        return userRepository.findAllBy(PageRequest.of(page, size, Sort.by("_id")));
+    }
+
+    public List<UserSummary> getAllSummaries(){
+        return userRepository.findAllBy();
+    }
+
+    // projection only: no password hash, and no journal backfill check since no entries are read
+    public Optional<UserSummary> findSummaryById(ObjectId id){
+        return userRepository.findSummaryById(id);
+    }
+
     public Optional<User> findById(ObjectId id ){
+        ownerBackfill.ensureMigrated(id);
         return userRepository.findById(id);
     }
 
    
+    /**
+     * Served from {@link UserSnapshotCache}; the returned User is a private copy the caller may modify.
+     */
     public User findByUserName(String userName){
-         // Match repository method to the actual field name `userName`
-         return userRepository.findByUserName(userName);
+         return userCache.get(userName, name -> {
+             // Match repository method to the actual field name `userName`
+             User user = userRepository.findByUserName(name);
+             if (user != null) {
+                 ownerBackfill.ensureMigrated(user.getId());
+             }
+             return user;
+         });
+    }
 
+    /**
+     * Resolves just the _id for a userName: from the user cache when warm, otherwise with
+     * a projected query that skips the rest of the document.
+     */
+    public ObjectId findIdByUserName(String userName){
+        User cached = userCache.getIfPresent(userName);
+        if (cached != null) {
+            return cached.getId();
+        }
+        Query query = new Query(Criteria.where("userName").is(userName));
+        query.fields().include("_id");
+        Document doc = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(User.class));
+        if (doc == null) {
+            return null;
+        }
+        ObjectId id = doc.getObjectId("_id");
+        ownerBackfill.ensureMigrated(id);
+        return id;
     }
 
+    /**
+     * Deletes the user, then their entries in the background. The user goes first: if the
+     * entry cleanup is interrupted, the orphan scan finds what is left.
+     */
     public void deleteById(ObjectId id){
+        // entries still listed only in the legacy array get their ownerId, so the cleanup finds them
+        ownerBackfill.ensureMigrated(id);
         userRepository.deleteById(id);
+        credentialCache.invalidateUser(id);
+        userCache.invalidateUser(id);
+        entryReclaimer.reclaimOwner(id);
     }
 }
\ No newline at end of file
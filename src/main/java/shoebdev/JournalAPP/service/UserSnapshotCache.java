@@ -0,0 +1,112 @@
+package shoebdev.JournalAPP.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import shoebdev.JournalAPP.entity.User;
+
+/**
+ * Read-through cache of users by userName for {@link UserService}.
+ *
+ * Entries are immutable snapshots and every read hands out a fresh {@link User}, so a
+ * caller that blanks the password before returning it cannot corrupt the cache. This
+ * instance's own writes invalidate immediately; writes made through other instances behind
+ * the load balancer are picked up when the short TTL runs out.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private final Cache<String, Snapshot> cache;
+    // bumped before every invalidation; a load that straddles one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserSnapshotCache(@Value("${journal.cache.users.max-size:10000}") long maxSize,
+                             @Value("${journal.cache.users.ttl:30s}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.byName");
+    }
+
+    /**
+     * @return a copy of the cached user, loading it through {@code loader} on a miss;
+     *         null if the loader finds nothing (absence is not cached)
+     */
+    public User get(String userName, Function<String, User> loader) {
+        Snapshot snapshot = cache.getIfPresent(userName);
+        if (snapshot == null) {
+            // load outside the cache's compute lock: a Mongo call inside it would pin a virtual
+            // thread's carrier. Two racing misses may both load, which is harmless.
+            long loadedIn = generation.get();
+            User loaded = loader.apply(userName);
+            if (loaded == null) {
+                return null;
+            }
+            Snapshot fresh = Snapshot.of(loaded);
+            // the check and the put share the key's lock with invalidate, so an invalidation
+            // either lands after the put and removes it, or is seen here and nothing is put
+            cache.asMap().compute(userName, (name, cached) -> generation.get() == loadedIn ? fresh : cached);
+            snapshot = fresh;
+        }
+        return snapshot.toUser();
+    }
+
+    /**
+     * @return a copy of the cached user, or null without loading anything
+     */
+    public User getIfPresent(String userName) {
+        Snapshot snapshot = cache.getIfPresent(userName);
+        return snapshot == null ? null : snapshot.toUser();
+    }
+
+    public void invalidate(String userName) {
+        if (userName != null) {
+            generation.incrementAndGet();
+            cache.invalidate(userName);
+        }
+    }
+
+    /**
+     * Drops the user wherever it is cached, including under a userName it no longer has.
+     */
+    public void invalidateUser(ObjectId userId) {
+        if (userId != null) {
+            generation.incrementAndGet();
+            cache.asMap().values().removeIf(snapshot -> userId.equals(snapshot.id()));
+        }
+    }
+
+    private record Snapshot(ObjectId id, String userName, String password, List<String> roles,
+                            LocalDateTime lastModified) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getUserName(), user.getPassword(),
+                    user.getRoles() == null ? null : List.copyOf(user.getRoles()), user.getLastModified());
+        }
+
+        User toUser() {
+            User user = new User(userName, password);
+            user.setId(id);
+            user.setRoles(roles == null ? null : new ArrayList<>(roles));
+            user.setLastModified(lastModified);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package shoebdev.JournalAPP;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+/**
+ * Base for tests that run against an in-memory MongoDB: every test gets a fresh server,
+ * a template on it and an {@link #owner} to write entries for.
+ */
+public abstract class MongoTestSupport {
+
+    protected MongoServer mongo;
+    protected MongoClient client;
+    protected MongoTemplate mongoTemplate;
+    protected final ObjectId owner = new ObjectId();
+
+    /**
+     * A bound in-memory server, for tests that need one outside the per-test lifecycle.
+     */
+    public static MongoServer startServer() {
+        MongoServer server = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        server.bind();
+        return server;
+    }
+
+    public static String uri(MongoServer server) {
+        InetSocketAddress address = server.getLocalAddress();
+        return "mongodb://localhost:" + address.getPort();
+    }
+
+    @BeforeEach
+    void startMongo() {
+        mongo = startServer();
+        client = MongoClients.create(uri(mongo));
+        mongoTemplate = new MongoTemplate(client, getClass().getSimpleName());
+    }
+
+    @AfterEach
+    void stopMongo() {
+        client.close();
+        mongo.shutdownNow();
+    }
+
+    /**
+     * An unsaved entry at version 1, titled "entry " and its id.
+     */
+    protected static JournalEntry entry(ObjectId ownerId, LocalDateTime date, LocalDateTime lastModified, String content) {
+        JournalEntry entry = new JournalEntry();
+        entry.setId(new ObjectId());
+        entry.setOwnerId(ownerId);
+        entry.setTitle("entry " + entry.getId());
+        entry.setContent(content);
+        entry.setDate(date);
+        entry.setVersion(1L);
+        entry.setLastModified(lastModified);
+        return entry;
+    }
+
+    protected ObjectId insert(JournalEntry entry) {
+        return mongoTemplate.insert(entry).getId();
+    }
+}
@@ -0,0 +1,95 @@
+package shoebdev.JournalAPP.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.config.AdmissionProperties;
+
+/**
+ * Drives {@link AdaptiveConcurrencyLimiter#adjust()} by hand, one call per window.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getConcurrency().setInitialLimit(20);
+        properties.getConcurrency().setMinLimit(4);
+        properties.getConcurrency().setMaxLimit(50);
+        properties.getConcurrency().setMinSamples(10);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void refusesRequestsOverTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shrinksWhenMongoSlowsDownAndRecovers() {
+        window(5);
+        assertEquals(20, limiter.getLimit());
+
+        window(50);
+        assertEquals(10, limiter.getLimit()); // at most halved per window
+        window(50);
+        window(50);
+        assertEquals(4, limiter.getLimit()); // never below the minimum
+
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            saturate();
+            window(5);
+            assertTrue(limiter.getLimit() > previous);
+            previous = limiter.getLimit();
+        }
+    }
+
+    @Test
+    void doesNotGrowWhileIdle() {
+        for (int i = 0; i < 5; i++) {
+            window(5);
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void toleratesLatencyWithinTheConfiguredMultiple() {
+        window(5);
+        window(9);
+        assertEquals(20, limiter.getLimit());
+    }
+
+    // one window of Mongo commands at the given latency
+    private void window(long millis) {
+        for (int i = 0; i < 10; i++) {
+            limiter.recordLatency(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        limiter.adjust();
+    }
+
+    private void saturate() {
+        int taken = 0;
+        while (limiter.tryAcquire()) {
+            taken++;
+        }
+        for (int i = 0; i < taken; i++) {
+            limiter.release();
+        }
+    }
+}
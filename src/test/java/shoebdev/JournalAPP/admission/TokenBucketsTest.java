@@ -0,0 +1,54 @@
+package shoebdev.JournalAPP.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketsTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void burstThenRefillAtTheConfiguredRate() {
+        TokenBuckets buckets = new TokenBuckets(3, 2, 4, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+        }
+        long wait = buckets.tryAcquire("10.0.0.1");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+        assertTrue(buckets.tryAcquire("10.0.0.1") > 0);
+        // other keys have their own bucket
+        assertEquals(0, buckets.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void idleTimeNeverBanksMoreThanTheBurst() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 4, 100, now::get);
+        buckets.tryAcquire("alice");
+
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void keyCountStaysBounded() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 4, 64, now::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("198.51.100." + i);
+        }
+
+        assertTrue(buckets.size() <= 64, "kept " + buckets.size() + " keys");
+    }
+}
@@ -0,0 +1,168 @@
+package shoebdev.JournalAPP.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import shoebdev.JournalAPP.JournalAppApplication;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.service.UserService;
+
+/**
+ * The polling pattern: a client re-fetches the same journal page over and over while nothing
+ * changes. Compares plain responses, gzip, and If-None-Match revalidation (304) by bytes on
+ * the wire and server CPU per poll. The app runs in this JVM on an in-memory MongoDB, and CPU
+ * is summed over the Tomcat request threads only:
+ * {@code mvn test -Djournal.bench=true -Dtest=ConditionalGetBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "journal.bench", matches = "true")
+class ConditionalGetBenchmark {
+
+    private static final int POLLS = Integer.getInteger("journal.bench.polls", 2_000);
+    private static final int WARM_UP_POLLS = 500;
+    private static final int ENTRIES = 200;
+    private static final String USER_NAME = "poll-user";
+    private static final String PASSWORD = "bench-pass";
+    // Basic credentials are served from the credential cache after the first poll
+    private static final String AUTH = "Basic " + Base64.getEncoder().encodeToString(
+            (USER_NAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+    private enum Mode { PLAIN, GZIP, IF_NONE_MATCH }
+
+    @Test
+    void revalidationVersusFullResponses() throws Exception {
+        MongoServer mongo = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        InetSocketAddress address = mongo.bind();
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(JournalAppApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.host=localhost",
+                        "--spring.data.mongodb.port=" + address.getPort(),
+                        "--spring.data.mongodb.database=journal-bench",
+                        // one client polling flat out would otherwise hit its rate limit
+                        "--journal.admission.rate-limit.enabled=false")) {
+            String userName = seed(app);
+            String base = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort()
+                    + "/journal/" + userName;
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            List<String> report = new ArrayList<>();
+            for (String query : new String[] {"?limit=" + ENTRIES, "?limit=" + ENTRIES + "&fields=id,title,content,date"}) {
+                for (Mode mode : Mode.values()) {
+                    report.add(measure(client, URI.create(base + query), query, mode));
+                }
+            }
+            System.out.printf("%-45s %-14s %8s %12s %14s %10s%n",
+                    "request", "mode", "status", "bytes/poll", "server us/poll", "p50 ms");
+            report.forEach(System.out::println);
+        } finally {
+            mongo.shutdownNow();
+        }
+    }
+
+    private static String measure(HttpClient client, URI uri, String label, Mode mode) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).header("Authorization", AUTH).GET();
+        if (mode != Mode.PLAIN) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (mode == Mode.IF_NONE_MATCH) {
+            HttpResponse<Void> first = client.send(HttpRequest.newBuilder(uri).header("Authorization", AUTH).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            builder.header("If-None-Match", first.headers().firstValue("ETag").orElseThrow());
+        }
+        HttpRequest request = builder.build();
+
+        for (int i = 0; i < WARM_UP_POLLS; i++) {
+            client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        long[] latencies = new long[POLLS];
+        long bytes = 0;
+        int status = 0;
+        long cpuBefore = serverCpuNanos();
+        for (int i = 0; i < POLLS; i++) {
+            long started = System.nanoTime();
+            // the body is read undecoded, so its length is what crossed the wire
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            latencies[i] = System.nanoTime() - started;
+            bytes += response.body().length;
+            status = response.statusCode();
+            if (status != (mode == Mode.IF_NONE_MATCH ? 304 : 200)) {
+                throw new IllegalStateException(mode + " poll answered " + status);
+            }
+        }
+        long cpu = serverCpuNanos() - cpuBefore;
+
+        Arrays.sort(latencies);
+        return String.format("%-45s %-14s %8d %12d %14.1f %10.2f",
+                label, mode, status, bytes / POLLS, cpu / 1_000.0 / POLLS, latencies[POLLS / 2] / 1_000_000.0);
+    }
+
+    private static long serverCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("http-nio-")) {
+                total += Math.max(0, threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return total;
+    }
+
+    private static String seed(ConfigurableApplicationContext app) {
+        User user = new User(USER_NAME, PASSWORD);
+        app.getBean(UserService.class).saveNewUser(user);
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<JournalEntry> entries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            JournalEntry entry = new JournalEntry();
+            entry.setId(new ObjectId());
+            entry.setOwnerId(user.getId());
+            entry.setTitle("Day " + i);
+            StringBuilder content = new StringBuilder();
+            while (content.length() < 600) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            entry.setContent(content.toString());
+            entry.setDate(start.plusHours(i));
+            entry.setVersion(1L);
+            entry.setLastModified(entry.getDate());
+            entries.add(entry);
+        }
+        app.getBean(MongoTemplate.class).bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class)
+                .insert(entries)
+                .execute();
+        return user.getUserName();
+    }
+
+    // prose-like content, so gzip ratios resemble real journals rather than random letters
+    private static final String[] WORDS = {
+        "morning", "coffee", "meeting", "walk", "rain", "project", "dinner", "book", "train", "garden",
+        "weekend", "call", "music", "run", "sleep", "market", "letter", "river", "city", "friend",
+        "the", "a", "and", "to", "of", "we", "after", "before", "long", "quiet"
+    };
+}
@@ -0,0 +1,387 @@
+package shoebdev.JournalAPP.bench;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.ServerVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import shoebdev.JournalAPP.JournalAppApplication;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.service.UserService;
+
+/**
+ * End-to-end load test: boots the real application, including the SpringSecurity chain,
+ * against an in-process MongoDB stand-in, seeds users with skewed journal sizes, and runs
+ * a closed-loop mix of login, create, list, update and delete over HTTP.
+ *
+ * Prints throughput, per-operation latency histograms and the allocation rate of the
+ * server's request threads, then fails if any budget in {@code loadtest-budgets.properties}
+ * is exceeded. Run with {@code mvn -Ploadtest test}; tune with
+ * {@code -Djournal.loadtest.{clients,warm-up,duration}}.
+ */
+@EnabledIfSystemProperty(named = "journal.loadtest", matches = "true")
+class JournalLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("journal.loadtest.clients", 16);
+    private static final Duration WARM_UP = Duration.parse("PT" + System.getProperty("journal.loadtest.warm-up", "10s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("journal.loadtest.duration", "30s"));
+    private static final String PASSWORD = "load-test-password";
+    private static final long SEED = 42;
+
+    enum Op {
+        LOGIN(5), CREATE(20), LIST(45), UPDATE(20), DELETE(10);
+
+        final int weight;
+
+        Op(int weight) {
+            this.weight = weight;
+        }
+
+        static Op pick(Random random) {
+            int roll = random.nextInt(100);
+            for (Op op : values()) {
+                roll -= op.weight;
+                if (roll < 0) {
+                    return op;
+                }
+            }
+            return LIST;
+        }
+    }
+
+    private static MongoServer mongo;
+    private static ConfigurableApplicationContext app;
+    private static String baseUrl;
+    private static final List<Client> clients = new ArrayList<>();
+    private static final ObjectMapper json = new ObjectMapper();
+    private static final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @BeforeAll
+    static void startAppAndSeed() throws Exception {
+        // the 5.x driver refuses servers below wire version 8 (MongoDB 4.2)
+        mongo = new MongoServer(new MemoryBackend().version(ServerVersion.MONGO_5_0));
+        InetSocketAddress address = mongo.bind();
+        app = new SpringApplicationBuilder(JournalAppApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.host=localhost",
+                        "--spring.data.mongodb.port=" + address.getPort(),
+                        "--spring.data.mongodb.database=journal-load",
+                        // a fixed cost keeps login numbers comparable between machines and runs
+                        "--journal.security.bcrypt.strength=10",
+                        // budgets measure capacity; admission control would turn overload into 429/503
+                        "--journal.admission.rate-limit.enabled=false",
+                        "--journal.admission.concurrency.enabled=false");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        seed();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (app != null) {
+            app.close();
+        }
+        if (mongo != null) {
+            mongo.shutdownNow();
+        }
+    }
+
+    /**
+     * One user per client, so update/delete never race on the same entries. Journal sizes
+     * follow a Pareto-like curve: most users have a few dozen entries, a few have thousands.
+     */
+    private static void seed() throws Exception {
+        UserService userService = app.getBean(UserService.class);
+        MongoTemplate mongoTemplate = app.getBean(MongoTemplate.class);
+        Random random = new Random(SEED);
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 8, 0);
+        long seeded = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            User user = new User("load-user-" + c, PASSWORD);
+            userService.saveNewUser(user);
+
+            int size = (int) Math.min(2000, Math.round(10 / Math.pow(1 - random.nextDouble(), 1 / 1.2)));
+            List<JournalEntry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                JournalEntry entry = new JournalEntry();
+                entry.setId(new ObjectId());
+                entry.setOwnerId(user.getId());
+                entry.setTitle("Day " + i);
+                entry.setContent(text(random, 200 + random.nextInt(800)));
+                entry.setDate(start.plusHours(i * 6L));
+                entries.add(entry);
+            }
+            if (!entries.isEmpty()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class);
+                bulk.insert(entries);
+                bulk.execute();
+            }
+            seeded += size;
+
+            Client client = new Client(user.getUserName(), new Random(SEED + c));
+            entries.forEach(entry -> client.entryIds.add(entry.getId()));
+            client.login();
+            clients.add(client);
+        }
+        System.out.printf("seeded %d users, %d journal entries%n", CLIENTS, seeded);
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinBudgets() throws Exception {
+        run(WARM_UP);
+        clients.forEach(Client::reset);
+
+        Map<Long, Long> allocatedBefore = serverThreadAllocations();
+        long started = System.nanoTime();
+        run(DURATION);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long allocated = allocatedSince(allocatedBefore);
+
+        Map<Op, Histogram> latencies = new EnumMap<>(Op.class);
+        long requests = 0;
+        long errors = 0;
+        for (Client client : clients) {
+            for (Map.Entry<Op, Histogram> entry : client.latencies.entrySet()) {
+                latencies.computeIfAbsent(entry.getKey(), op -> newHistogram()).add(entry.getValue());
+            }
+            errors += client.errors;
+        }
+        for (Histogram histogram : latencies.values()) {
+            requests += histogram.getTotalCount();
+        }
+
+        double throughput = requests / seconds;
+        double errorRate = requests == 0 ? 1 : (double) errors / requests;
+        double bytesPerRequest = requests == 0 ? 0 : (double) allocated / requests;
+
+        System.out.printf("%n%d clients, %.1f s: %d requests, %.1f req/s, %d errors (%.4f%%)%n",
+                CLIENTS, seconds, requests, throughput, errors, errorRate * 100);
+        System.out.printf("server request threads allocated %.1f MB/s, %.0f bytes/request%n",
+                allocated / seconds / (1024 * 1024), bytesPerRequest);
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s%n", "op", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        latencies.forEach((op, h) -> System.out.printf("%-8s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", op, h.getTotalCount(),
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue())));
+        latencies.forEach((op, h) -> {
+            System.out.printf("%n%s latency distribution (ms):%n", op);
+            h.outputPercentileDistribution(System.out, 5, 1_000_000.0);
+        });
+
+        Properties budgets = budgets();
+        List<String> breaches = new ArrayList<>();
+        check(breaches, "throughput.min", throughput, budgets, false);
+        check(breaches, "error-rate.max", errorRate, budgets, true);
+        check(breaches, "allocation.bytes-per-request.max", bytesPerRequest, budgets, true);
+        latencies.forEach((op, h) -> check(breaches, "p99." + op.name().toLowerCase() + ".ms",
+                millis(h.getValueAtPercentile(99)), budgets, true));
+        assertTrue(breaches.isEmpty(), "load-test budgets exceeded:\n  " + String.join("\n  ", breaches));
+    }
+
+    private static void run(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Client client : clients) {
+                futures.add(pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        client.next();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * One simulated user: keeps its own token and the ids of entries it may update or delete.
+     */
+    private static final class Client {
+        private final String userName;
+        private final Random random;
+        private final List<ObjectId> entryIds = new ArrayList<>();
+        private final Map<Op, Histogram> latencies = new EnumMap<>(Op.class);
+        private String accessToken;
+        private long errors;
+
+        Client(String userName, Random random) {
+            this.userName = userName;
+            this.random = random;
+        }
+
+        void reset() {
+            latencies.clear();
+            errors = 0;
+        }
+
+        void next() {
+            Op op = Op.pick(random);
+            if ((op == Op.UPDATE || op == Op.DELETE) && entryIds.isEmpty()) {
+                op = Op.CREATE;
+            }
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                ok = switch (op) {
+                    case LOGIN -> login();
+                    case CREATE -> send(authorized(journal("")).POST(body(newEntry())));
+                    case LIST -> send(authorized(journal("")).GET());
+                    case UPDATE -> send(authorized(journal("/id/" + randomEntry().toHexString())).PUT(body(newEntry())));
+                    case DELETE -> send(authorized(journal("/id/" + entryIds.remove(entryIds.size() - 1).toHexString())).DELETE());
+                };
+            } catch (Exception e) {
+                ok = false;
+            }
+            latencies.computeIfAbsent(op, o -> newHistogram()).recordValue(System.nanoTime() - started);
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        boolean login() throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/public/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(body(Map.of("userName", userName, "password", PASSWORD)))
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            accessToken = json.readTree(response.body()).get("accessToken").asText();
+            return true;
+        }
+
+        private boolean send(HttpRequest.Builder request) throws Exception {
+            return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        }
+
+        private HttpRequest.Builder journal(String suffix) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/journal/" + userName + suffix));
+        }
+
+        private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+            return request.header("Authorization", "Bearer " + accessToken).header("Content-Type", "application/json");
+        }
+
+        private ObjectId randomEntry() {
+            return entryIds.get(random.nextInt(entryIds.size()));
+        }
+
+        private Map<String, String> newEntry() {
+            return Map.of("title", "Load " + random.nextInt(1_000_000), "content", text(random, 200 + random.nextInt(800)));
+        }
+    }
+
+    private static HttpRequest.BodyPublisher body(Object value) throws Exception {
+        return HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(value));
+    }
+
+    private static Histogram newHistogram() {
+        // 1 µs .. 1 min at 3 significant digits
+        return new Histogram(TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MINUTES.toNanos(1), 3);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Bytes allocated so far by Tomcat request threads and the BCrypt pool, by thread id.
+     * The load generator runs in the same JVM, so its threads are left out.
+     */
+    private static Map<Long, Long> serverThreadAllocations() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocated = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (name.startsWith("http-nio-") || name.startsWith("bcrypt-")) {
+                allocated.put(thread.getId(), threads.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return allocated;
+    }
+
+    private static long allocatedSince(Map<Long, Long> before) {
+        long total = 0;
+        for (Map.Entry<Long, Long> now : serverThreadAllocations().entrySet()) {
+            total += now.getValue() - before.getOrDefault(now.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static Properties budgets() throws Exception {
+        Properties budgets = new Properties();
+        try (InputStream in = JournalLoadTest.class.getResourceAsStream("/loadtest-budgets.properties")) {
+            budgets.load(in);
+        }
+        for (String key : budgets.stringPropertyNames()) {
+            String override = System.getProperty("journal.loadtest.budget." + key);
+            if (override != null) {
+                budgets.setProperty(key, override);
+            }
+        }
+        return budgets;
+    }
+
+    private static void check(List<String> breaches, String key, double actual, Properties budgets, boolean isMax) {
+        String budget = budgets.getProperty(key);
+        if (budget == null) {
+            return;
+        }
+        double limit = Double.parseDouble(budget);
+        if (isMax ? actual > limit : actual < limit) {
+            breaches.add(String.format("%s: %.4f (budget %s)", key, actual, budget));
+        }
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(i % 7 == 6 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
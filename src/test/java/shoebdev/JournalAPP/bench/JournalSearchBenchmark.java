@@ -0,0 +1,106 @@
+package shoebdev.JournalAPP.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import shoebdev.JournalAPP.dto.JournalEntryFields;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.service.JournalEntryService;
+
+/**
+ * Indexed text search vs. the old "download the whole journal and filter it" pattern, at
+ * 1k, 10k and 100k entries for one owner. Needs a local MongoDB; run with
+ * {@code mvn test -Djournal.bench=true -Dtest=JournalSearchBenchmark}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "journal.bench", matches = "true")
+class JournalSearchBenchmark {
+
+    private static final int[] JOURNAL_SIZES = {1_000, 10_000, 100_000};
+    private static final int RUNS = 15;
+    private static final String NEEDLE = "lighthouse";
+    private static final String[] WORDS = {
+        "morning", "coffee", "meeting", "walk", "rain", "project", "dinner", "book", "train", "garden",
+        "weekend", "call", "music", "run", "sleep", "market", "letter", "river", "city", "friend"
+    };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Test
+    void indexedSearchVersusFetchAll() {
+        System.out.printf("%10s %16s %16s%n", "entries", "search p50 ms", "fetch-all p50 ms");
+        for (int size : JOURNAL_SIZES) {
+            ObjectId owner = new ObjectId();
+            try {
+                seed(owner, size);
+                double search = medianMillis(() -> journalEntryService.search(owner, NEEDLE, null, null, 0, 20, JournalEntryFields.SUMMARY));
+                double fetchAll = medianMillis(() -> journalEntryService.findByOwner(owner).stream()
+                        .filter(e -> e.getContent().toLowerCase(Locale.ROOT).contains(NEEDLE))
+                        .limit(20)
+                        .toList());
+                System.out.printf("%10d %16.2f %16.2f%n", size, search, fetchAll);
+            } finally {
+                mongoTemplate.remove(Query.query(Criteria.where("ownerId").is(owner)), JournalEntry.class);
+            }
+        }
+    }
+
+    private void seed(ObjectId owner, int size) {
+        Random random = new Random(size);
+        LocalDateTime start = LocalDateTime.now().minusDays(size);
+        List<JournalEntry> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < size; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int w = 0; w < 40; w++) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            // roughly 1% of entries match, like a real search term
+            if (random.nextInt(100) == 0) {
+                content.append(NEEDLE);
+            }
+            JournalEntry entry = new JournalEntry();
+            entry.setOwnerId(owner);
+            entry.setTitle("Entry " + i);
+            entry.setContent(content.toString());
+            entry.setDate(start.plusDays(i));
+            batch.add(entry);
+            if (batch.size() == 1_000) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class).insert(batch).execute();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JournalEntry.class).insert(batch).execute();
+        }
+    }
+
+    private static double medianMillis(Runnable action) {
+        action.run(); // warm-up
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            action.run();
+            samples[i] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
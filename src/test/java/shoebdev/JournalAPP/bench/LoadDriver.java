@@ -0,0 +1,120 @@
+package shoebdev.JournalAPP.bench;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Minimal closed-loop HTTP load generator for the benchmarks: {@code concurrency} clients
+ * each send the next request as soon as the previous one answers, until the deadline.
+ */
+final class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    record Result(String label, long requests, long errors, double throughputPerSecond,
+                  double p50Millis, double p99Millis, double maxMillis) {
+
+        static String header() {
+            return String.format("%-28s %10s %8s %12s %10s %10s %10s",
+                    "run", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %10d %8d %12.1f %10.2f %10.2f %10.2f",
+                    label, requests, errors, throughputPerSecond, p50Millis, p99Millis, maxMillis);
+        }
+    }
+
+    /**
+     * @param requests builds the request for a given client index; called once per request
+     */
+    static Result run(String label, int concurrency, Duration warmUp, Duration duration,
+                      IntFunction<HttpRequest> requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        drive(client, concurrency, warmUp, requests);
+        return summarise(label, duration, drive(client, concurrency, duration, requests));
+    }
+
+    private static List<long[]> drive(HttpClient client, int concurrency, Duration duration,
+                                      IntFunction<HttpRequest> requests) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                int clientIndex = c;
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.apply(clientIndex),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors++;
+                            }
+                        } catch (Exception e) {
+                            errors++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - started;
+                    }
+                    // last slot carries the error count
+                    long[] result = Arrays.copyOf(latencies, count + 1);
+                    result[count] = errors;
+                    return result;
+                }));
+            }
+            List<long[]> results = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Result summarise(String label, Duration duration, List<long[]> perClient) {
+        long errors = 0;
+        int total = 0;
+        for (long[] client : perClient) {
+            errors += client[client.length - 1];
+            total += client.length - 1;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] client : perClient) {
+            System.arraycopy(client, 0, all, offset, client.length - 1);
+            offset += client.length - 1;
+        }
+        Arrays.sort(all);
+        return new Result(label, total, errors, total / (duration.toMillis() / 1000.0),
+                percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,173 @@
+package shoebdev.JournalAPP.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import shoebdev.JournalAPP.JournalAppApplication;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.reactive.JournalReactiveApplication;
+import shoebdev.JournalAPP.service.JournalEntryService;
+import shoebdev.JournalAPP.service.UserService;
+
+/**
+ * Opens 10k concurrent connections against the NDJSON journal listing of the servlet app
+ * and then of the reactive app, and reports completion, latency, peak heap and peak thread
+ * count for each. Both servers run in this JVM, so the MXBean numbers are the server's.
+ * Both stacks get the same request, {@code ?stream=true} (the reactive listing ignores the
+ * parameter and always streams), with one bearer token from /public/login signed under a
+ * shared secret: with HTTP Basic the reactive side would BCrypt every request while the
+ * servlet side hits its credential cache, and the numbers would mostly measure that.
+ * Needs MongoDB on localhost:27017 and a high open-files limit ({@code ulimit -n 65536}):
+ * {@code mvn test -Djournal.bench=true -Dtest=ReactiveScalingBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "journal.bench", matches = "true")
+class ReactiveScalingBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("journal.bench.clients", 10_000);
+    private static final int SEED_ENTRIES = 100;
+    private static final String PASSWORD = "bench-pass";
+    private static final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void servletVersusReactiveAtTenThousandClients() throws Exception {
+        User user;
+        String token;
+        List<String> report = new ArrayList<>();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        String secret = "--journal.security.token.secret=" + Base64.getEncoder().encodeToString(key);
+        String tokenTtl = "--journal.security.token.access-ttl=2h";
+        // the servlet app seeds the data; both stacks then read the same journal
+        try (ConfigurableApplicationContext servlet = new SpringApplicationBuilder(JournalAppApplication.class)
+                .run("--server.port=0", "--journal.migration.owner-backfill.enabled=false",
+                        "--journal.admission.rate-limit.enabled=false", "--journal.admission.concurrency.enabled=false",
+                        secret, tokenTtl)) {
+            UserService userService = servlet.getBean(UserService.class);
+            user = new User("rx-bench-" + System.nanoTime(), PASSWORD);
+            userService.saveNewUser(user);
+            JournalEntryService entries = servlet.getBean(JournalEntryService.class);
+            for (int i = 0; i < SEED_ENTRIES; i++) {
+                JournalEntry entry = new JournalEntry();
+                entry.setTitle("seed " + i);
+                entry.setContent("seed content " + i);
+                entries.createEntry(user.getId(), entry);
+            }
+            token = login(port(servlet), user);
+            report.add(measure("servlet (Tomcat)", port(servlet), user, token));
+        }
+
+        try (ConfigurableApplicationContext reactive = JournalReactiveApplication.builder()
+                .run("--server.port=0", secret, tokenTtl)) {
+            report.add(measure("reactive (Netty)", port(reactive), user, token));
+        }
+
+        try (ConfigurableApplicationContext cleanup = new SpringApplicationBuilder(JournalAppApplication.class)
+                .run("--spring.main.web-application-type=none", "--journal.migration.owner-backfill.enabled=false")) {
+            cleanup.getBean(JournalEntryService.class).findByOwner(user.getId())
+                    .forEach(e -> cleanup.getBean(JournalEntryService.class).deleteById(e.getId()));
+            cleanup.getBean(UserService.class).deleteById(user.getId());
+        }
+
+        System.out.printf("%-18s %9s %8s %10s %10s %14s %13s%n",
+                "stack", "completed", "errors", "p50 ms", "p99 ms", "peak heap MB", "peak threads");
+        report.forEach(System.out::println);
+    }
+
+    private static String login(int port, User user) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/public/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(
+                        Map.of("userName", user.getUserName(), "password", PASSWORD))))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        return json.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private static String measure(String label, int port, User user, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/journal/" + user.getUserName() + "?stream=true"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/x-ndjson")
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // warm the JIT before the burst
+        for (int i = 0; i < 50; i++) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long[] latencies = new long[CLIENTS];
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            int slot = i;
+            long started = System.nanoTime();
+            inFlight[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        latencies[slot] = System.nanoTime() - started;
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(inFlight).join();
+        sampler.interrupt();
+
+        Arrays.sort(latencies);
+        return String.format("%-18s %9d %8d %10.1f %10.1f %14.1f %13d",
+                label, CLIENTS - errors.get(), errors.get(),
+                latencies[CLIENTS / 2] / 1_000_000.0, latencies[(int) (CLIENTS * 0.99) - 1] / 1_000_000.0,
+                peakHeap.get() / (1024.0 * 1024.0), threads.getPeakThreadCount());
+    }
+
+    private static int port(ConfigurableApplicationContext app) {
+        return ((WebServerApplicationContext) app).getWebServer().getPort();
+    }
+}
@@ -0,0 +1,101 @@
+package shoebdev.JournalAPP.bench;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import shoebdev.JournalAPP.JournalAppApplication;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.service.JournalEntryService;
+import shoebdev.JournalAPP.service.UserService;
+
+/**
+ * Boots the app twice, once on Tomcat's platform-thread pool and once on virtual threads,
+ * and drives both past pool saturation with the same read/write mix. Needs MongoDB on
+ * localhost:27017, and JDK 21+ for the virtual-thread run:
+ * {@code mvn test -Djournal.bench=true -Dtest=VirtualThreadLoadBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "journal.bench", matches = "true")
+class VirtualThreadLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("journal.bench.concurrency", 400);
+    // small on purpose so the platform pool saturates well before the CPU does
+    private static final int TOMCAT_THREADS = 50;
+    private static final int SEED_ENTRIES = 200;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("journal.bench.seconds", 20));
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<LoadDriver.Result> results = new ArrayList<>();
+        results.add(runMode(false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(runMode(true));
+        } else {
+            System.out.println("JDK " + Runtime.version().feature() + ": virtual-thread run skipped (needs 21+)");
+        }
+        System.out.println(LoadDriver.Result.header());
+        results.forEach(System.out::println);
+    }
+
+    private LoadDriver.Result runMode(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(JournalAppApplication.class)
+                // command-line args, so they win over application.properties
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--journal.migration.owner-backfill.enabled=false",
+                        "--journal.admission.rate-limit.enabled=false",
+                        "--journal.admission.concurrency.enabled=false")) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            UserService userService = app.getBean(UserService.class);
+            User user = new User("vt-bench-" + System.nanoTime(), "bench-pass");
+            userService.saveNewUser(user);
+            try {
+                JournalEntryService entries = app.getBean(JournalEntryService.class);
+                for (int i = 0; i < SEED_ENTRIES; i++) {
+                    JournalEntry entry = new JournalEntry();
+                    entry.setTitle("seed " + i);
+                    entry.setContent("seed content " + i);
+                    entries.createEntry(user.getId(), entry);
+                }
+
+                String auth = "Basic " + Base64.getEncoder().encodeToString(
+                        (user.getUserName() + ":bench-pass").getBytes(StandardCharsets.UTF_8));
+                URI list = URI.create("http://localhost:" + port + "/journal/" + user.getUserName() + "?limit=20");
+                URI create = URI.create("http://localhost:" + port + "/journal/" + user.getUserName());
+                // 4 reads : 1 write, all authenticated so the security chain is part of the path
+                return LoadDriver.run(virtualThreads ? "virtual threads" : "platform threads (" + TOMCAT_THREADS + ")",
+                        CONCURRENCY, WARM_UP, DURATION, client -> {
+                            if (ThreadLocalRandom.current().nextInt(5) == 0) {
+                                return HttpRequest.newBuilder(create)
+                                        .header("Authorization", auth)
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"load\",\"content\":\"load test\"}"))
+                                        .build();
+                            }
+                            return HttpRequest.newBuilder(list).header("Authorization", auth).GET().build();
+                        });
+            } finally {
+                app.getBean(MongoTemplate.class).remove(
+                        Query.query(Criteria.where("ownerId").is(user.getId())), JournalEntry.class);
+                userService.deleteById(user.getId());
+            }
+        }
+    }
+}
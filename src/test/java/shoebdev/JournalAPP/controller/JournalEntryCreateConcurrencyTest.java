@@ -0,0 +1,114 @@
+package shoebdev.JournalAPP.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import de.bwaldvogel.mongo.MongoServer;
+import shoebdev.JournalAPP.MongoTestSupport;
+
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.service.UserService;
+
+/**
+ * Fires parallel POST /journal/{userName} calls at one user and checks every entry landed.
+ * The application runs against an in-memory MongoDB started for this class.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "journal.admission.rate-limit.enabled=false")
+class JournalEntryCreateConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CREATES_PER_THREAD = 25;
+    private static final String PASSWORD = "concurrency-pass";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private static final MongoServer MONGO = MongoTestSupport.startServer();
+
+    private User user;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> MongoTestSupport.uri(MONGO) + "/concurrency-test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        MONGO.shutdownNow();
+    }
+
+    @BeforeEach
+    void createUser() {
+        user = new User("concurrency-" + System.nanoTime(), PASSWORD);
+        userService.saveNewUser(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        mongoTemplate.remove(Query.query(Criteria.where("ownerId").is(user.getId())), JournalEntry.class);
+        userService.deleteById(user.getId());
+    }
+
+    @Test
+    void parallelCreatesForOneUserAreAllKept() throws Exception {
+        TestRestTemplate client = restTemplate.withBasicAuth(user.getUserName(), PASSWORD);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tasks.add(() -> {
+                    int created = 0;
+                    for (int i = 0; i < CREATES_PER_THREAD; i++) {
+                        ResponseEntity<String> response = client.postForEntity("/journal/" + user.getUserName(),
+                                Map.of("title", "t" + thread + "-" + i, "content", "body"), String.class);
+                        if (response.getStatusCode() == HttpStatus.CREATED) {
+                            created++;
+                        }
+                    }
+                    return created;
+                });
+            }
+            int created = 0;
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                created += result.get();
+            }
+
+            long stored = mongoTemplate.count(Query.query(Criteria.where("ownerId").is(user.getId())), JournalEntry.class);
+            assertEquals(THREADS * CREATES_PER_THREAD, created);
+            assertEquals(THREADS * CREATES_PER_THREAD, stored);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package shoebdev.JournalAPP.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import shoebdev.JournalAPP.entity.JournalEntry;
+
+class JournalEntryFieldsTest {
+
+    @Test
+    void parseKeepsRequestOrderAndDropsBlanks() {
+        assertEquals(List.of("content", "id"), List.copyOf(JournalEntryFields.parse(" content, ,id,content")));
+        assertNull(JournalEntryFields.parse(null));
+    }
+
+    @Test
+    void parseRejectsUnknownOrEmptySelections() {
+        assertThrows(IllegalArgumentException.class, () -> JournalEntryFields.parse("title,password"));
+        assertThrows(IllegalArgumentException.class, () -> JournalEntryFields.parse(" , "));
+    }
+
+    @Test
+    void selectRendersOnlyTheChosenFields() {
+        JournalEntry entry = new JournalEntry();
+        entry.setId(new ObjectId());
+        entry.setTitle("Day one");
+        entry.setContent("...");
+        entry.setDate(LocalDateTime.of(2025, 1, 1, 8, 0));
+        entry.setOwnerId(new ObjectId());
+
+        Map<String, Object> view = JournalEntryFields.select(entry, JournalEntryFields.parse("id,title"));
+
+        assertEquals(Map.of("id", entry.getId().toHexString(), "title", "Day one"), view);
+    }
+}
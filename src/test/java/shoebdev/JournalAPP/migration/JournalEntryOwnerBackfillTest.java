@@ -0,0 +1,58 @@
+package shoebdev.JournalAPP.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.DBRef;
+
+import shoebdev.JournalAPP.MongoTestSupport;
+
+/**
+ * The owner backfill's marker and on-demand migration, against an in-memory MongoDB.
+ */
+class JournalEntryOwnerBackfillTest extends MongoTestSupport {
+
+    @Test
+    void markerWrittenByAnotherInstanceIsReadAtStartup() {
+        mongoTemplate.save(new Document("_id", JournalEntryOwnerBackfill.MIGRATION_ID).append("completedAt", new Date()),
+                JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION);
+
+        // this instance does not run the backfill itself
+        JournalEntryOwnerBackfill backfill = backfill(false);
+
+        assertTrue(backfill.isCompleted());
+    }
+
+    @Test
+    void usersAreMigratedOnDemandUntilTheMarkerExists() {
+        ObjectId entryId = new ObjectId();
+        mongoTemplate.insert(new Document("_id", entryId).append("title", "legacy"), "journalEntries");
+        mongoTemplate.insert(new Document("_id", owner).append("userName", "alice.example")
+                .append("journalEntries", List.of(new DBRef("journalEntries", entryId))), "users");
+        JournalEntryOwnerBackfill backfill = backfill(false);
+        assertFalse(backfill.isCompleted());
+
+        backfill.ensureMigrated(owner);
+
+        assertEquals(owner, mongoTemplate.findById(entryId, Document.class, "journalEntries").getObjectId("ownerId"));
+        assertFalse(mongoTemplate.findById(owner, Document.class, "users").containsKey("journalEntries"));
+    }
+
+    private JournalEntryOwnerBackfill backfill(boolean enabled) {
+        JournalEntryOwnerBackfill backfill = new JournalEntryOwnerBackfill();
+        ReflectionTestUtils.setField(backfill, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(backfill, "enabled", enabled);
+        backfill.loadMarker();
+        backfill.start();
+        return backfill;
+    }
+}
@@ -0,0 +1,187 @@
+package shoebdev.JournalAPP.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+import shoebdev.JournalAPP.entity.JournalStats;
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
+import shoebdev.JournalAPP.security.JournalUserDetails;
+import shoebdev.JournalAPP.service.JournalEntryArchive;
+import shoebdev.JournalAPP.service.JournalStatsService;
+import shoebdev.JournalAPP.service.ReactiveJournalArchive;
+import shoebdev.JournalAPP.service.ReactiveJournalStats;
+
+/**
+ * Reactive writes against an in-memory MongoDB, checked with the servlet app's blocking
+ * stats and archive services.
+ */
+class ReactiveJournalControllerTest extends MongoTestSupport {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 10, 8, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MongoClient reactiveClient;
+    private JournalEntryArchive archive;
+    private JournalStatsService stats;
+    private ReactiveJournalController controller;
+    private JournalUserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.save(new Document("_id", JournalEntryOwnerBackfill.MIGRATION_ID).append("completedAt", new Date()),
+                JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION);
+        meterRegistry = new SimpleMeterRegistry();
+        archive = new JournalEntryArchive(mongoTemplate, meterRegistry);
+        stats = new JournalStatsService(mongoTemplate, archive, false, Duration.ZERO, Duration.ofHours(1), 1.0,
+                Duration.ZERO, meterRegistry);
+        reactiveClient = MongoClients.create(uri(mongo));
+        ReactiveMongoTemplate reactiveTemplate = new ReactiveMongoTemplate(reactiveClient, getClass().getSimpleName());
+        controller = controller(reactiveTemplate);
+        principal = new JournalUserDetails(owner, "alice.example", "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(stats, "shutdown");
+        reactiveClient.close();
+    }
+
+    @Test
+    void writesKeepTheStatsInStep() {
+        stats.rebuild(owner);
+
+        JournalEntry first = controller.createEntry(entry("one two three"), "alice.example", principal).block().getBody();
+        JournalEntry second = controller.createEntry(entry("four"), "alice.example", principal).block().getBody();
+        controller.updateJournalEntryById("alice.example", second.getId(), entry("four five six seven"), principal).block();
+        controller.deleteJournalEntryById("alice.example", first.getId(), principal).block();
+
+        JournalStats incremental = mongoTemplate.findById(owner, JournalStats.class);
+        assertEquals(1, incremental.getEntries());
+        assertEquals(4, incremental.getWords());
+        JournalStats rebuilt = stats.rebuild(owner);
+        assertEquals(incremental.getEntries(), rebuilt.getEntries());
+        assertEquals(incremental.getWords(), rebuilt.getWords());
+        assertEquals(incremental.getDays(), rebuilt.getDays());
+        assertEquals(0.0, meterRegistry.get("journal.stats.drift").counter().count());
+    }
+
+    @Test
+    void archivedEntriesCanBeReadUpdatedAndDeleted() {
+        JournalEntry kept = entry(owner, JANUARY, JANUARY, "archived and edited");
+        JournalEntry gone = entry(owner, JANUARY.plusDays(1), JANUARY, "archived and deleted");
+        archive(10, kept, gone);
+        stats.rebuild(owner);
+
+        assertEquals("archived and edited",
+                controller.getJournalEntryById("alice.example", kept.getId(), principal).block().getBody().getContent());
+
+        JournalEntry updated = controller.updateJournalEntryById("alice.example", kept.getId(), entry("edited"), principal)
+                .block().getBody();
+
+        assertEquals("edited", updated.getContent());
+        assertEquals(2L, updated.getVersion());
+        assertEquals("edited", mongoTemplate.findById(kept.getId(), JournalEntry.class).getContent());
+
+        assertEquals(200, controller.deleteJournalEntryById("alice.example", gone.getId(), principal).block()
+                .getStatusCode().value());
+        assertEquals(0, mongoTemplate.count(new Query(), JournalArchiveBlock.class));
+        assertTrue(mongoTemplate.exists(Query.query(Criteria.where("_id").is(gone.getId())), JournalEntryTombstone.class));
+        assertEquals(404, controller.deleteJournalEntryById("alice.example", gone.getId(), principal).block()
+                .getStatusCode().value());
+
+        JournalStats incremental = mongoTemplate.findById(owner, JournalStats.class);
+        assertEquals(1, incremental.getEntries());
+        assertEquals(1, incremental.getWords());
+    }
+
+    @Test
+    void listingMergesTheArchiveNewestFirst() {
+        JournalEntry tenth = entry(owner, JANUARY, JANUARY, "archived");
+        JournalEntry fourteenth = entry(owner, JANUARY.plusDays(4), JANUARY, "archived");
+        archive(2, tenth, fourteenth);
+        // a later run: the new block overlaps the full one in date
+        JournalEntry twelfth = entry(owner, JANUARY.plusDays(2), JANUARY, "archived");
+        JournalEntry sixteenth = entry(owner, JANUARY.plusDays(6), JANUARY, "archived");
+        archive(2, twelfth, sixteenth);
+        // old but edited recently, so still hot
+        JournalEntry thirteenth = mongoTemplate.insert(entry(owner, JANUARY.plusDays(3), LocalDateTime.now(), "hot"));
+        // an interrupted restore left a hot copy behind
+        twelfth.setContent("restored");
+        mongoTemplate.insert(twelfth);
+        JournalEntry created = controller.createEntry(entry("new"), "alice.example", principal).block().getBody();
+
+        List<JournalEntry> listed = controller.getAll("alice.example", null, principal).collectList().block();
+
+        assertEquals(List.of(created.getId(), sixteenth.getId(), fourteenth.getId(), thirteenth.getId(),
+                twelfth.getId(), tenth.getId()), listed.stream().map(JournalEntry::getId).toList());
+        assertEquals("restored", listed.get(4).getContent());
+        assertEquals(List.of(created.getId(), sixteenth.getId()),
+                controller.getAll("alice.example", 2, principal).map(JournalEntry::getId).collectList().block());
+    }
+
+    @Test
+    void requestsWaitForTheOwnerBackfill() {
+        mongoTemplate.remove(new Query(), JournalEntryOwnerBackfill.MIGRATIONS_COLLECTION);
+        ReactiveMongoTemplate reactiveTemplate = new ReactiveMongoTemplate(reactiveClient, getClass().getSimpleName());
+        ReactiveJournalController migrating = controller(reactiveTemplate);
+
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class,
+                () -> migrating.getAll("alice.example", null, principal).collectList().block());
+        assertEquals(503, refused.getStatusCode().value());
+        assertThrows(ResponseStatusException.class,
+                () -> migrating.getJournalEntryById("alice.example", new ObjectId(), principal).block());
+    }
+
+    private ReactiveJournalController controller(ReactiveMongoTemplate reactiveTemplate) {
+        ReactiveMongoRepositoryFactory repositories = new ReactiveMongoRepositoryFactory(reactiveTemplate);
+        return new ReactiveJournalController(repositories.getRepository(ReactiveJournalEntryRepository.class),
+                repositories.getRepository(ReactiveUserRepository.class), reactiveTemplate,
+                new ReactiveJournalStats(reactiveTemplate), new ReactiveJournalArchive(reactiveTemplate));
+    }
+
+    private void archive(int blockSize, JournalEntry... entries) {
+        List<JournalEntry> archived = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            archived.add(mongoTemplate.insert(entry));
+        }
+        // what an archive run does, one package over
+        ReflectionTestUtils.invokeMethod(archive, "append", owner, JANUARY.withDayOfMonth(1).toLocalDate().atStartOfDay(),
+                archived, blockSize);
+        archived.forEach(mongoTemplate::remove);
+    }
+
+    private static JournalEntry entry(String content) {
+        JournalEntry entry = new JournalEntry();
+        entry.setTitle("title");
+        entry.setContent(content);
+        return entry;
+    }
+}
@@ -0,0 +1,78 @@
+package shoebdev.JournalAPP.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void hashesOnThePoolAndFlagsCheaperHashesForUpgrade() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 4, registry);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(executor, 5, Duration.ZERO, 4, 14, registry);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertEquals(1, registry.get("auth.bcrypt.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.bcrypt.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void fullQueueIsRejected() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, registry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // one task occupies the only thread, a second fills the one queue slot
+            callers.submit(() -> executor.execute("encode", () -> {
+                running.countDown();
+                await(release);
+                return "";
+            }));
+            running.await();
+            callers.submit(() -> executor.execute("encode", () -> ""));
+            while (registry.get("auth.bcrypt.queue.depth").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(PasswordHashingRejectedException.class, () -> executor.execute("encode", () -> ""));
+            assertEquals(1, registry.get("auth.bcrypt.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertEquals(4, BoundedPasswordEncoder.calibrate(Duration.ZERO, 4, 14));
+        assertEquals(6, BoundedPasswordEncoder.calibrate(Duration.ofMinutes(1), 4, 6));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
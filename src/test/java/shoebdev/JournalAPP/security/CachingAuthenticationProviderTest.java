@@ -0,0 +1,80 @@
+package shoebdev.JournalAPP.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingAuthenticationProviderTest {
+
+    private final ObjectId userId = new ObjectId();
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+    private CredentialCache cache;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CredentialCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        AuthenticationProvider delegate = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                delegateCalls.incrementAndGet();
+                if (!"secret".equals(authentication.getCredentials())) {
+                    throw new BadCredentialsException("bad");
+                }
+                JournalUserDetails user = new JournalUserDetails(userId, authentication.getName(), "hash",
+                        AuthorityUtils.createAuthorityList("ROLE_USER"));
+                return UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return true;
+            }
+        };
+        provider = new CachingAuthenticationProvider(delegate, cache);
+    }
+
+    @Test
+    void repeatedLoginIsServedFromCache() {
+        provider.authenticate(login("alice", "secret"));
+        Authentication second = provider.authenticate(login("alice", "secret"));
+
+        assertEquals(1, delegateCalls.get());
+        assertEquals("alice", second.getName());
+        assertEquals(userId, ((JournalUserDetails) second.getPrincipal()).getId());
+    }
+
+    @Test
+    void wrongPasswordAlwaysReachesDelegate() {
+        provider.authenticate(login("alice", "secret"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("alice", "guess")));
+        assertEquals(2, delegateCalls.get());
+    }
+
+    @Test
+    void invalidatingUserForcesFullCheck() {
+        provider.authenticate(login("alice", "secret"));
+        cache.invalidateUser(userId);
+        provider.authenticate(login("alice", "secret"));
+
+        assertEquals(2, delegateCalls.get());
+    }
+
+    private static Authentication login(String userName, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(userName, password);
+    }
+}
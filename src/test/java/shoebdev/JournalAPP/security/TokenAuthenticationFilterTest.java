@@ -0,0 +1,74 @@
+package shoebdev.JournalAPP.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+class TokenAuthenticationFilterTest {
+
+    private final TokenService tokenService = new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7));
+    private final TokenService expired = new TokenService("", Duration.ofSeconds(-1), Duration.ofDays(7));
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService,
+            PathPatternRequestMatcher.withDefaults().matcher("/public/**"));
+    private final JournalUserDetails user = new JournalUserDetails(new ObjectId(), "alice.example", "",
+            AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenAuthenticates() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/journal/alice.example", tokenService.issueAccessToken(user)),
+                new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals("alice.example", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void badTokenIsRefusedOnProtectedPaths() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/journal/alice.example", expired.issueAccessToken(user)), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void badTokenPassesUnauthenticatedOnOpenPaths() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/public/logout", expired.issueAccessToken(user)), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest request(String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package shoebdev.JournalAPP.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+class TokenServiceTest {
+
+    private final TokenService tokenService = new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7));
+    private final JournalUserDetails user = new JournalUserDetails(new ObjectId(), "alice.example", "",
+            AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+    @Test
+    void accessTokenRoundTrips() {
+        TokenClaims claims = tokenService.verify(tokenService.issueAccessToken(user), TokenService.ACCESS);
+
+        assertNotNull(claims);
+        assertEquals(user.getId(), claims.userId());
+        assertEquals("alice.example", claims.userName());
+        assertEquals(user.getAuthorities(), claims.toUserDetails().getAuthorities());
+    }
+
+    @Test
+    void tamperedOrMistypedTokensAreRejected() {
+        String access = tokenService.issueAccessToken(user);
+        String tampered = (access.charAt(0) == 'A' ? 'B' : 'A') + access.substring(1);
+
+        assertNull(tokenService.verify(tampered, TokenService.ACCESS));
+        assertNull(tokenService.verify(access, TokenService.REFRESH));
+        assertNull(tokenService.verify("not-a-token", TokenService.ACCESS));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        TokenService shortLived = new TokenService("", Duration.ofSeconds(-1), Duration.ofDays(7));
+
+        assertNull(shortLived.verify(shortLived.issueAccessToken(user), TokenService.ACCESS));
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        String refresh = tokenService.issueRefreshToken(user);
+        tokenService.revoke(tokenService.verify(refresh, TokenService.REFRESH));
+
+        assertNull(tokenService.verify(refresh, TokenService.REFRESH));
+    }
+
+    @Test
+    void concurrentConsumesOfOneTokenHaveOneWinner() throws Exception {
+        TokenClaims claims = tokenService.verify(tokenService.issueRefreshToken(user), TokenService.REFRESH);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = Collections.nCopies(32, () -> tokenService.consume(claims));
+            long winners = 0;
+            for (Future<Boolean> attempt : pool.invokeAll(attempts)) {
+                winners += attempt.get() ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void revokedTokensAreNotEvictedBeforeTheyExpire() {
+        List<String> refreshTokens = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String refresh = tokenService.issueRefreshToken(user);
+            tokenService.revoke(tokenService.verify(refresh, TokenService.REFRESH));
+            refreshTokens.add(refresh);
+        }
+
+        for (String refresh : refreshTokens) {
+            assertNull(tokenService.verify(refresh, TokenService.REFRESH));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.ReadPreference;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.dto.ArchiveProgress;
+import shoebdev.JournalAPP.dto.JournalChanges;
+import shoebdev.JournalAPP.dto.JournalCursor;
+import shoebdev.JournalAPP.dto.JournalEntryFields;
+import shoebdev.JournalAPP.dto.JournalEntryPage;
+import shoebdev.JournalAPP.dto.JournalEntrySummary;
+import shoebdev.JournalAPP.entity.JournalArchiveBlock;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+
+/**
+ * Archive runs and the reads that fall through to the archive, against an in-memory
+ * MongoDB. Blocks hold at most three entries, so months span several blocks.
+ */
+class JournalEntryArchiverTest extends MongoTestSupport {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 10, 8, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2024, 2, 10, 8, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private JournalEntryArchive archive;
+    private JournalEntryArchiver archiver;
+    private JournalEntryService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archive = new JournalEntryArchive(mongoTemplate, meterRegistry);
+        archiver = new JournalEntryArchiver(mongoTemplate, archive, false, Duration.ZERO, Duration.ofHours(1),
+                Duration.ofDays(30), 3, 1.0, meterRegistry);
+        service = new JournalEntryService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "archive", archive);
+        ReflectionTestUtils.setField(service, "statsService", new JournalStatsService(mongoTemplate, archive, false,
+                Duration.ZERO, Duration.ofHours(1), 1.0, Duration.ZERO, meterRegistry));
+        ReflectionTestUtils.setField(service, "journalReads", ReadPreference.primary());
+        ReflectionTestUtils.setField(service, "syncSettleTime", Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiver.shutdown();
+    }
+
+    @Test
+    void oldEntriesMoveToMonthlyBlocksAndPagesStillSeeThem() throws InterruptedException {
+        List<ObjectId> all = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            all.add(entry(JANUARY.plusDays(i), JANUARY.plusDays(i)));
+        }
+        for (int i = 0; i < 3; i++) {
+            all.add(entry(FEBRUARY.plusDays(i), FEBRUARY.plusDays(i)));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        all.add(entry(now.minusDays(1), now.minusDays(1)));
+        all.add(entry(now, now));
+
+        archiver.run();
+
+        ArchiveProgress progress = archiver.getProgress();
+        assertFalse(progress.running());
+        assertEquals(7, progress.entriesArchived());
+        assertTrue(progress.storedBytes() > 0);
+        assertEquals(7.0, meterRegistry.get("journal.archive.entries").counter().count());
+        assertEquals(2, mongoTemplate.count(new Query(), JournalEntry.class));
+        // January: a full block and one with the leftover entry; February topped up to three
+        List<JournalArchiveBlock> blocks = mongoTemplate.findAll(JournalArchiveBlock.class);
+        assertEquals(3, blocks.size());
+        assertEquals(7, blocks.stream().mapToInt(JournalArchiveBlock::getCount).sum());
+
+        List<ObjectId> paged = new ArrayList<>();
+        JournalCursor cursor = null;
+        do {
+            JournalEntryPage<JournalEntrySummary> page = service.findSummaryPage(owner, cursor, 2);
+            page.entries().forEach(summary -> paged.add(new ObjectId(summary.id())));
+            cursor = page.nextCursor() == null ? null : JournalCursor.decode(page.nextCursor());
+        } while (cursor != null);
+        Collections.reverse(all);
+        assertEquals(all, paged);
+
+        ObjectId archived = all.get(all.size() - 1);
+        JournalEntry found = service.findByIdAndOwner(archived, owner, JournalEntryFields.ALL).orElseThrow();
+        assertEquals("entry " + archived, found.getTitle());
+        assertEquals(JANUARY, found.getDate());
+        assertTrue(service.findByIdAndOwner(archived, new ObjectId(), JournalEntryFields.ALL).isEmpty());
+    }
+
+    @Test
+    void updatesRestoreAndDeletesRemoveArchivedEntries() throws InterruptedException {
+        ObjectId updated = entry(JANUARY, JANUARY);
+        ObjectId deleted = entry(JANUARY.plusDays(1), JANUARY.plusDays(1));
+        archiver.run();
+
+        JournalEntry result = service.updateFields(updated, owner, "edited", null);
+
+        assertEquals("edited", result.getTitle());
+        assertEquals(2L, result.getVersion());
+        assertTrue(archive.find(updated, owner).isEmpty());
+        assertEquals(1.0, meterRegistry.get("journal.archive.restored").counter().count());
+
+        assertTrue(service.deleteByIdAndOwner(deleted, owner));
+        assertTrue(archive.find(deleted, owner).isEmpty());
+        assertTrue(mongoTemplate.exists(Query.query(Criteria.where("_id").is(deleted)), JournalEntryTombstone.class));
+        // the last entry gone takes its block with it
+        assertEquals(0, mongoTemplate.count(new Query(), JournalArchiveBlock.class));
+        assertFalse(service.deleteByIdAndOwner(deleted, owner));
+    }
+
+    @Test
+    void recentlyEditedEntriesStayHotAndHotCopiesWin() throws InterruptedException {
+        ObjectId edited = entry(JANUARY, LocalDateTime.now());
+        ObjectId twice = entry(JANUARY.plusDays(1), LocalDateTime.now());
+        // what an interrupted restore leaves behind: the same entry hot and archived
+        JournalEntry copy = mongoTemplate.findById(twice, JournalEntry.class);
+        archive.append(owner, JANUARY.withDayOfMonth(1).toLocalDate().atStartOfDay(), new ArrayList<>(List.of(copy)), 3);
+
+        try (Stream<JournalEntry> stream = service.streamByOwner(owner, (JournalCursor) null)) {
+            assertEquals(List.of(twice, edited), stream.map(JournalEntry::getId).toList());
+        }
+        assertEquals(List.of(twice.toHexString(), edited.toHexString()),
+                service.findSummaryPage(owner, null, 10).entries().stream().map(JournalEntrySummary::id).toList());
+
+        archiver.run();
+
+        assertEquals(0, archiver.getProgress().entriesArchived());
+        assertEquals(2, mongoTemplate.count(new Query(), JournalEntry.class));
+    }
+
+    @Test
+    void streamsMergeHotAndArchivedEntriesNewestFirst() {
+        LocalDateTime month = JANUARY.withDayOfMonth(1).toLocalDate().atStartOfDay();
+        JournalEntry tenth = entry(owner, JANUARY, JANUARY, "archived");
+        JournalEntry fourteenth = entry(owner, JANUARY.plusDays(4), JANUARY, "archived");
+        archive.append(owner, month, new ArrayList<>(List.of(tenth, fourteenth)), 2);
+        // a later run: the new block overlaps the full one in date
+        JournalEntry twelfth = entry(owner, JANUARY.plusDays(2), JANUARY, "archived");
+        JournalEntry sixteenth = entry(owner, JANUARY.plusDays(6), JANUARY, "archived");
+        archive.append(owner, month, new ArrayList<>(List.of(twelfth, sixteenth)), 2);
+        LocalDateTime now = LocalDateTime.now();
+        // old but edited recently, so still hot
+        ObjectId thirteenth = insert(entry(owner, JANUARY.plusDays(3), now, "hot"));
+        ObjectId latest = insert(entry(owner, now, now, "hot"));
+
+        try (Stream<JournalEntry> stream = service.streamByOwner(owner, (JournalCursor) null)) {
+            assertEquals(List.of(latest, sixteenth.getId(), fourteenth.getId(), thirteenth, twelfth.getId(), tenth.getId()),
+                    stream.map(JournalEntry::getId).toList());
+        }
+        try (Stream<JournalEntry> stream = service.streamByOwner(owner, 100)) {
+            assertEquals(6, stream.count());
+        }
+        JournalCursor after = new JournalCursor(fourteenth.getDate(), fourteenth.getId());
+        try (Stream<JournalEntry> stream = service.streamByOwner(owner, after)) {
+            assertEquals(List.of(thirteenth, twelfth.getId(), tenth.getId()), stream.map(JournalEntry::getId).toList());
+        }
+    }
+
+    @Test
+    void fullSyncReturnsArchivedEntries() throws InterruptedException {
+        List<ObjectId> all = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            all.add(entry(JANUARY.plusDays(i), JANUARY.plusDays(i)));
+        }
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        all.add(entry(now, now));
+        archiver.run();
+        assertEquals(4, archiver.getProgress().entriesArchived());
+
+        List<ObjectId> synced = new ArrayList<>();
+        JournalCursor since = null;
+        JournalChanges changes;
+        do {
+            changes = service.changesSince(owner, since, 2);
+            changes.changed().forEach(entry -> synced.add(entry.getId()));
+            since = JournalCursor.decode(changes.checkpoint());
+        } while (changes.hasMore());
+
+        assertEquals(all, synced);
+        assertTrue(service.changesSince(owner, since, 2).changed().isEmpty());
+    }
+
+    @Test
+    void searchMatchesArchivedEntries() throws InterruptedException {
+        ObjectId walk = insert(entry(owner, JANUARY, JANUARY, "A long Walk by the river"));
+        ObjectId rain = insert(entry(owner, JANUARY.plusDays(1), JANUARY, "walked home in the rain"));
+        ObjectId river = insert(entry(owner, FEBRUARY, FEBRUARY, "the river was frozen"));
+        archiver.run();
+        assertEquals(3, archiver.getProgress().entriesArchived());
+
+        assertEquals(List.of(river, rain, walk), archive.search(owner, "walk river", null, null, 0, 10)
+                .stream().map(JournalEntry::getId).toList());
+        assertEquals(List.of(rain, walk), archive.search(owner, "walk river", null, null, 1, 10)
+                .stream().map(JournalEntry::getId).toList());
+        assertEquals(List.of(walk), archive.search(owner, "\"by the river\" -rain", null, null, 0, 10)
+                .stream().map(JournalEntry::getId).toList());
+        assertEquals(List.of(rain), archive.search(owner, "walk -river", null, JANUARY.plusDays(5), 0, 10)
+                .stream().map(JournalEntry::getId).toList());
+        assertEquals(List.of(river), archive.search(owner, "walk river", FEBRUARY, null, 0, 10)
+                .stream().map(JournalEntry::getId).toList());
+        assertTrue(archive.search(owner, "-river", null, null, 0, 10).isEmpty());
+        assertTrue(archive.search(new ObjectId(), "river", null, null, 0, 10).isEmpty());
+    }
+
+    private ObjectId entry(LocalDateTime date, LocalDateTime lastModified) {
+        return insert(entry(owner, date, lastModified, "the same few words, over and over ".repeat(20)));
+    }
+}
@@ -0,0 +1,125 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.dto.ReclaimProgress;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalStats;
+import shoebdev.JournalAPP.entity.User;
+import shoebdev.JournalAPP.migration.JournalEntryOwnerBackfill;
+
+/**
+ * Orphan scan and cascade against an in-memory MongoDB, with batches small enough that
+ * every path runs more than once.
+ */
+class JournalEntryReclaimerTest extends MongoTestSupport {
+
+    private JournalEntryOwnerBackfill ownerBackfill;
+    private JournalEntryArchive archive;
+    private JournalStatsService stats;
+    private JournalEntryReclaimer reclaimer;
+
+    @BeforeEach
+    void setUp() {
+        ownerBackfill = new JournalEntryOwnerBackfill();
+        archive = new JournalEntryArchive(mongoTemplate, new SimpleMeterRegistry());
+        stats = new JournalStatsService(mongoTemplate, archive, false, Duration.ZERO, Duration.ofHours(1), 1.0,
+                Duration.ZERO, new SimpleMeterRegistry());
+        reclaimer = new JournalEntryReclaimer(mongoTemplate, ownerBackfill, archive, stats, false, Duration.ZERO,
+                Duration.ofHours(1), 3, 1.0, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reclaimer.shutdown();
+    }
+
+    @Test
+    void scanDeletesOnlyEntriesOfMissingUsers() throws InterruptedException {
+        ObjectId kept = user("kept");
+        entries(kept, 4);
+        for (int i = 0; i < 5; i++) {
+            entries(new ObjectId(), 2);
+        }
+        entries(null, 3);
+
+        reclaimer.scan();
+
+        ReclaimProgress progress = reclaimer.getProgress();
+        assertFalse(progress.running());
+        assertNotNull(progress.finishedAt());
+        assertEquals(6, progress.ownersChecked());
+        assertEquals(5, progress.orphanedOwners());
+        assertEquals(10, progress.entriesDeleted());
+        assertEquals(4, count(kept));
+        // unowned entries wait until the owner backfill has had its chance
+        assertEquals(3, count(null));
+    }
+
+    @Test
+    void unownedEntriesGoOnceTheOwnerBackfillIsDone() throws InterruptedException {
+        entries(null, 3);
+        ReflectionTestUtils.setField(ownerBackfill, "completed", true);
+
+        reclaimer.scan();
+
+        assertEquals(0, count(null));
+        assertEquals(3, reclaimer.getProgress().entriesDeleted());
+    }
+
+    @Test
+    void reclaimOwnerDeletesInTheBackground() throws InterruptedException {
+        ObjectId gone = new ObjectId();
+        entries(gone, 7);
+        JournalEntry archived = mongoTemplate.findOne(Query.query(Criteria.where("ownerId").is(gone)), JournalEntry.class);
+        archive.append(gone, LocalDateTime.now(), new ArrayList<>(List.of(archived)), 10);
+        stats.rebuild(gone);
+
+        reclaimer.reclaimOwner(gone);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while ((count(gone) > 0 || mongoTemplate.findById(gone, JournalStats.class) != null)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, count(gone));
+        assertTrue(archive.find(archived.getId(), gone).isEmpty());
+        assertNull(mongoTemplate.findById(gone, JournalStats.class));
+    }
+
+    private ObjectId user(String userName) {
+        User user = new User(userName, "secret");
+        user.setId(new ObjectId());
+        return mongoTemplate.insert(user).getId();
+    }
+
+    private void entries(ObjectId ownerId, int count) {
+        for (int i = 0; i < count; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            insert(entry(ownerId, now, now, null));
+        }
+    }
+
+    private long count(ObjectId ownerId) {
+        return mongoTemplate.count(Query.query(Criteria.where("ownerId").is(ownerId)), JournalEntry.class);
+    }
+}
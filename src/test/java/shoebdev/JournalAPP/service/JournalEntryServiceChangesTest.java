@@ -0,0 +1,125 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.dto.JournalChanges;
+import shoebdev.JournalAPP.dto.JournalCursor;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalEntryTombstone;
+
+/**
+ * Incremental sync against an in-memory MongoDB: updates and deletes come back merged in
+ * (timestamp, id) order, and paging by checkpoint returns every change exactly once.
+ */
+class JournalEntryServiceChangesTest extends MongoTestSupport {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private JournalEntryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new JournalEntryService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "archive", new JournalEntryArchive(mongoTemplate, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "syncSettleTime", Duration.ZERO);
+    }
+
+    @Test
+    void pagesMergeUpdatesAndDeletesInOrder() {
+        ObjectId first = entry(T0);
+        ObjectId deletedEarly = tombstone(T0.plusMinutes(1));
+        ObjectId sameTimeEntry = entry(T0.plusMinutes(2));
+        ObjectId sameTimeDelete = tombstone(T0.plusMinutes(2));
+        ObjectId last = entry(T0.plusMinutes(3));
+        entry(T0.plusMinutes(3), new ObjectId()); // someone else's entry
+
+        List<ObjectId> seen = new ArrayList<>();
+        JournalChanges page = service.changesSince(owner, null, 2);
+        collect(page, seen);
+        assertTrue(page.hasMore());
+        page = service.changesSince(owner, JournalCursor.decode(page.checkpoint()), 2);
+        collect(page, seen);
+        assertTrue(page.hasMore());
+        page = service.changesSince(owner, JournalCursor.decode(page.checkpoint()), 2);
+        collect(page, seen);
+        assertFalse(page.hasMore());
+
+        assertEquals(List.of(first, deletedEarly, sameTimeEntry, sameTimeDelete, last), seen);
+
+        JournalChanges none = service.changesSince(owner, JournalCursor.decode(page.checkpoint()), 2);
+        assertTrue(none.changed().isEmpty() && none.deleted().isEmpty());
+        assertFalse(JournalCursor.decode(none.checkpoint()).date().isBefore(JournalCursor.decode(page.checkpoint()).date()));
+    }
+
+    @Test
+    void idleJournalsCheckpointKeepsUpWithTheClock() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        JournalCursor old = new JournalCursor(LocalDateTime.now().minusDays(80), new ObjectId());
+
+        JournalChanges page = service.changesSince(owner, old, 10);
+
+        assertTrue(page.changed().isEmpty() && page.deleted().isEmpty());
+        assertTrue(JournalCursor.decode(page.checkpoint()).date().isAfter(before));
+
+        // a change stamped after the advanced checkpoint still comes back
+        ObjectId later = entry(LocalDateTime.now().plusSeconds(1));
+        ReflectionTestUtils.setField(service, "syncSettleTime", Duration.ofSeconds(-5));
+        JournalChanges next = service.changesSince(owner, JournalCursor.decode(page.checkpoint()), 10);
+        assertEquals(List.of(later), next.changed().stream().map(JournalEntry::getId).toList());
+    }
+
+    @Test
+    void changesInsideTheSettleTimeWaitForTheNextCall() {
+        ReflectionTestUtils.setField(service, "syncSettleTime", Duration.ofMinutes(5));
+        ObjectId settled = entry(LocalDateTime.now().minusMinutes(10));
+        entry(LocalDateTime.now());
+
+        JournalChanges page = service.changesSince(owner, null, 10);
+
+        assertEquals(List.of(settled), page.changed().stream().map(JournalEntry::getId).toList());
+        assertFalse(page.hasMore());
+    }
+
+    // merges the page back into one list, in the order the checkpoint advanced through it
+    private static void collect(JournalChanges page, List<ObjectId> seen) {
+        List<JournalCursor> positions = new ArrayList<>();
+        page.changed().forEach(e -> positions.add(new JournalCursor(e.getLastModified(), e.getId())));
+        page.deleted().forEach(t -> positions.add(new JournalCursor(t.getDeletedAt(), t.getId())));
+        positions.sort((a, b) -> a.date().equals(b.date()) ? a.id().compareTo(b.id()) : a.date().compareTo(b.date()));
+        positions.forEach(position -> seen.add(position.id()));
+        JournalCursor last = positions.get(positions.size() - 1);
+        if (page.hasMore()) {
+            assertEquals(last, JournalCursor.decode(page.checkpoint()));
+        } else {
+            // the last page moves the checkpoint on to the sync horizon
+            assertTrue(JournalCursor.decode(page.checkpoint()).date().isAfter(last.date()));
+        }
+    }
+
+    private ObjectId entry(LocalDateTime lastModified) {
+        return entry(lastModified, owner);
+    }
+
+    private ObjectId entry(LocalDateTime lastModified, ObjectId ownerId) {
+        return insert(entry(ownerId, lastModified, lastModified, null));
+    }
+
+    private ObjectId tombstone(LocalDateTime deletedAt) {
+        return mongoTemplate.insert(new JournalEntryTombstone(new ObjectId(), owner, deletedAt)).getId();
+    }
+}
@@ -0,0 +1,180 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalStats;
+
+/**
+ * Write-behind against an in-memory MongoDB. The flush interval is an hour, so nothing is
+ * written until the test flushes or shuts down.
+ */
+class JournalEntryWriteBehindTest extends MongoTestSupport {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JournalEntryArchive archive;
+    private JournalStatsService stats;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archive = new JournalEntryArchive(mongoTemplate, meterRegistry);
+        stats = new JournalStatsService(mongoTemplate, archive, false, Duration.ZERO, Duration.ofHours(1), 1.0,
+                Duration.ZERO, meterRegistry);
+    }
+
+    @Test
+    void rapidEditsBecomeOneWrite() {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId id = entry();
+
+        assertTrue(writeBehind.submit(id, owner, "draft 1", "a"));
+        assertTrue(writeBehind.submit(id, owner, "draft 2", null));
+        assertTrue(writeBehind.submit(id, owner, "", "final content"));
+        assertEquals("original", mongoTemplate.findById(id, JournalEntry.class).getTitle());
+
+        writeBehind.flush();
+
+        JournalEntry stored = mongoTemplate.findById(id, JournalEntry.class);
+        assertEquals("draft 2", stored.getTitle());
+        assertEquals("final content", stored.getContent());
+        assertEquals(2L, stored.getVersion());
+        assertEquals(3.0, meterRegistry.get("journal.write.behind.updates").counter().count());
+        assertEquals(1.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+    }
+
+    @Test
+    void unknownOrForeignEntriesAreRefused() {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId id = entry();
+
+        assertFalse(writeBehind.submit(new ObjectId(), owner, "title", "content"));
+        assertFalse(writeBehind.submit(id, new ObjectId(), "title", "content"));
+    }
+
+    @Test
+    void writesDirectlyOncePendingIsFull() {
+        JournalEntryWriteBehind writeBehind = start(1);
+        ObjectId parked = entry();
+        ObjectId direct = entry();
+
+        writeBehind.submit(parked, owner, "parked", null);
+        writeBehind.submit(direct, owner, "direct", null);
+
+        assertEquals("original", mongoTemplate.findById(parked, JournalEntry.class).getTitle());
+        assertEquals("direct", mongoTemplate.findById(direct, JournalEntry.class).getTitle());
+    }
+
+    @Test
+    void shutdownFlushesWhatIsWaiting() throws InterruptedException {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId id = entry();
+        writeBehind.submit(id, owner, null, "saved on the way out");
+
+        writeBehind.shutdown();
+
+        assertEquals("saved on the way out", mongoTemplate.findById(id, JournalEntry.class).getContent());
+        assertFalse(writeBehind.isEnabled());
+    }
+
+    @Test
+    void updatesToEntriesArchivedBeforeTheFlushAreRetried() {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId id = entry();
+        writeBehind.submit(id, owner, null, "written after all");
+        JournalEntry parked = mongoTemplate.findById(id, JournalEntry.class);
+        parked.setLastModified(parked.getLastModified().minusDays(200));
+        archive.append(owner, parked.getDate().toLocalDate().withDayOfMonth(1).atStartOfDay(),
+                new ArrayList<>(List.of(parked)), 10);
+        mongoTemplate.remove(parked);
+
+        writeBehind.flush();
+
+        assertEquals(0.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+        JournalEntry restored = mongoTemplate.findById(id, JournalEntry.class);
+        assertEquals("original content", restored.getContent());
+        assertTrue(restored.getLastModified().isAfter(parked.getLastModified()));
+
+        writeBehind.flush();
+
+        assertEquals("written after all", mongoTemplate.findById(id, JournalEntry.class).getContent());
+        assertEquals(1.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+    }
+
+    @Test
+    void updatesToEntriesDeletedBeforeTheFlushAreDropped() {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId id = entry();
+        writeBehind.submit(id, owner, null, "too late");
+        mongoTemplate.remove(mongoTemplate.findById(id, JournalEntry.class));
+
+        writeBehind.flush();
+        writeBehind.flush();
+
+        assertNull(mongoTemplate.findById(id, JournalEntry.class));
+        assertEquals(0.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+    }
+
+    @Test
+    void onlyTheFailedUpdatesOfAPartlyFailedFlushAreRetried() {
+        JournalEntryWriteBehind writeBehind = start(100);
+        ObjectId good = entry();
+        ObjectId bad = entry();
+        stats.rebuild(owner);
+        writeBehind.submit(good, owner, null, "three more words");
+        writeBehind.submit(bad, owner, null, "four more words too");
+        // $inc on a non-numeric version fails this one update of the unordered bulk
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(bad)), new Update().set("version", "one"),
+                JournalEntry.class);
+
+        writeBehind.flush();
+
+        assertEquals("three more words", mongoTemplate.findById(good, JournalEntry.class).getContent());
+        assertEquals("original content", mongoTemplate.findById(bad, Document.class,
+                mongoTemplate.getCollectionName(JournalEntry.class)).getString("content"));
+        assertEquals(2 + 2 + 1, mongoTemplate.findById(owner, JournalStats.class).getWords());
+        assertEquals(1.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+        assertEquals(1.0, meterRegistry.get("journal.write.behind.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("journal.write.behind.pending").gauge().value());
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(bad)), new Update().set("version", 1L),
+                JournalEntry.class);
+        writeBehind.flush();
+
+        assertEquals("four more words too", mongoTemplate.findById(bad, JournalEntry.class).getContent());
+        assertEquals(3 + 4, mongoTemplate.findById(owner, JournalStats.class).getWords());
+        assertEquals(2.0, meterRegistry.get("journal.write.behind.writes").counter().count());
+    }
+
+    private JournalEntryWriteBehind start(int maxPending) {
+        JournalEntryWriteBehind writeBehind = new JournalEntryWriteBehind(
+                mongoTemplate, archive, stats, true, Duration.ofHours(1), maxPending, 500, meterRegistry);
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    private ObjectId entry() {
+        LocalDateTime now = LocalDateTime.now();
+        JournalEntry entry = entry(owner, now, now, "original content");
+        entry.setTitle("original");
+        return insert(entry);
+    }
+}
@@ -0,0 +1,164 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.ReadPreference;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.MongoTestSupport;
+import shoebdev.JournalAPP.dto.JournalStatsSummary;
+import shoebdev.JournalAPP.entity.JournalEntry;
+import shoebdev.JournalAPP.entity.JournalStats;
+
+/**
+ * Incremental stats updates against what a rebuild computes from the entries, against an
+ * in-memory MongoDB.
+ */
+class JournalStatsServiceTest extends MongoTestSupport {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 9, 30);
+
+    private SimpleMeterRegistry meterRegistry;
+    private JournalEntryArchive archive;
+    private JournalStatsService stats;
+    private JournalEntryService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archive = new JournalEntryArchive(mongoTemplate, meterRegistry);
+        stats = new JournalStatsService(mongoTemplate, archive, false, Duration.ZERO, Duration.ofHours(1), 1.0,
+                Duration.ZERO, meterRegistry);
+        service = new JournalEntryService();
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "archive", archive);
+        ReflectionTestUtils.setField(service, "statsService", stats);
+        ReflectionTestUtils.setField(service, "journalReads", ReadPreference.primary());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stats.shutdown();
+    }
+
+    @Test
+    void incrementalUpdatesMatchARebuild() {
+        String today = LocalDate.now().toString();
+        service.createEntry(owner, entry(MONDAY, "dear diary,  today\twas\nlong"));
+        ObjectId edited = service.createEntry(owner, entry(MONDAY, "short")).getId();
+        ObjectId deleted = service.createEntry(owner, entry(MONDAY, "gone tomorrow")).getId();
+        stats.entriesCreated(owner, List.of(mongoTemplate.insert(entry(MONDAY.plusDays(2), "imported in bulk"))));
+
+        service.updateFields(edited, owner, null, "not so short after all");
+        assertTrue(service.deleteByIdAndOwner(deleted, owner));
+
+        JournalStats incremental = mongoTemplate.findById(owner, JournalStats.class);
+        assertEquals(3, incremental.getEntries());
+        assertEquals(5 + 5 + 3, incremental.getWords());
+        assertEquals(Map.of(today, 2L, "2024-03-06", 1L), incremental.getDays());
+
+        JournalStats rebuilt = stats.rebuild(owner);
+        assertEquals(incremental.getEntries(), rebuilt.getEntries());
+        assertEquals(incremental.getWords(), rebuilt.getWords());
+        assertEquals(incremental.getDays(), rebuilt.getDays());
+        assertEquals(0.0, meterRegistry.get("journal.stats.drift").counter().count());
+    }
+
+    @Test
+    void rebuildCorrectsDriftAndCountsArchivedEntries() {
+        service.createEntry(owner, entry(MONDAY, "still hot"));
+        JournalEntry old = mongoTemplate.insert(entry(MONDAY.minusMonths(6), "archived long ago, four"));
+        archive.append(owner, old.getDate().toLocalDate().withDayOfMonth(1).atStartOfDay(), new ArrayList<>(List.of(old)), 10);
+        mongoTemplate.remove(old);
+
+        JournalStats rebuilt = stats.rebuild(owner);
+
+        assertEquals(2, rebuilt.getEntries());
+        assertEquals(2 + 4, rebuilt.getWords());
+        assertEquals(Map.of(LocalDate.now().toString(), 1L, "2023-09-04", 1L), rebuilt.getDays());
+        // the insert behind the service's back was picked up by the rebuild
+        assertEquals(1.0, meterRegistry.get("journal.stats.drift").counter().count());
+    }
+
+    @Test
+    void rebuildWaitsForAnIncrementStillInFlight() throws Exception {
+        stats.rebuild(owner);
+        JournalStatsService settling = new JournalStatsService(mongoTemplate, archive, false, Duration.ZERO,
+                Duration.ofHours(1), 1.0, Duration.ofSeconds(1), meterRegistry);
+        // written, but its $inc has not landed yet
+        JournalEntry written = mongoTemplate.insert(entry(MONDAY, "one two"));
+
+        CompletableFuture<JournalStats> rebuild = CompletableFuture.supplyAsync(() -> settling.rebuild(owner));
+        Thread.sleep(200);
+        stats.entryCreated(written);
+
+        assertEquals(1, rebuild.get().getEntries());
+        JournalStats stored = mongoTemplate.findById(owner, JournalStats.class);
+        assertEquals(1, stored.getEntries());
+        assertEquals(2, stored.getWords());
+        settling.shutdown();
+    }
+
+    @Test
+    void missingDocumentIsBuiltOnFirstRead() {
+        mongoTemplate.insert(entry(MONDAY, "one two three"));
+
+        JournalStatsSummary summary = stats.get(owner);
+
+        assertEquals(1, summary.totalEntries());
+        assertEquals(3, summary.totalWords());
+        assertEquals(1.0, meterRegistry.get("journal.stats.rebuilt").counter().count());
+
+        stats.deleteOwner(owner);
+        assertNull(mongoTemplate.findById(owner, JournalStats.class));
+    }
+
+    @Test
+    void streaksCountConsecutiveDays() {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        JournalStats journal = new JournalStats();
+        journal.setEntries(7);
+        journal.setWords(70);
+        journal.setDays(Map.of("2024-03-01", 1L, "2024-03-02", 2L, "2024-03-03", 1L,
+                "2024-03-05", 0L, "2024-03-08", 1L, "2024-03-09", 2L));
+
+        JournalStatsSummary summary = JournalStatsSummary.of(journal, today);
+
+        assertEquals(5, summary.activeDays());
+        assertEquals(LocalDate.of(2024, 3, 1), summary.firstDay());
+        assertEquals(LocalDate.of(2024, 3, 9), summary.lastDay());
+        assertEquals(3, summary.longestStreak());
+        assertEquals(2, summary.currentStreak());
+        assertEquals(10.0, summary.averageWords());
+        assertFalse(summary.entriesPerDay().containsKey(LocalDate.of(2024, 3, 5)));
+        assertEquals(0, JournalStatsSummary.of(journal, today.plusDays(2)).currentStreak());
+    }
+
+    @Test
+    void wordsAreRunsBetweenWhitespace() {
+        assertEquals(0, JournalStatsService.countWords(null));
+        assertEquals(0, JournalStatsService.countWords(" \t\r\n "));
+        assertEquals(4, JournalStatsService.countWords("  one\ttwo\r\nthree  four "));
+    }
+
+    private JournalEntry entry(LocalDateTime date, String content) {
+        return entry(owner, date, date, content);
+    }
+}
@@ -0,0 +1,73 @@
+package shoebdev.JournalAPP.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shoebdev.JournalAPP.entity.User;
+
+class UserSnapshotCacheTest {
+
+    private final UserSnapshotCache cache = new UserSnapshotCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void hitsHandOutCopies() {
+        User first = cache.get("alice.example", name -> user(name, "hash-1"));
+        first.setPassword("");
+
+        User second = cache.get("alice.example", name -> user(name, "never loaded"));
+
+        assertEquals("hash-1", second.getPassword());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void snapshotsKeepLastModified() {
+        LocalDateTime modified = LocalDateTime.of(2024, 3, 1, 12, 30);
+        cache.get("alice.example", name -> {
+            User user = user(name, "hash");
+            user.setLastModified(modified);
+            return user;
+        });
+
+        assertEquals(modified, cache.get("alice.example", name -> user(name, "never loaded")).getLastModified());
+        assertEquals(modified, cache.getIfPresent("alice.example").getLastModified());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        // the password changes (and invalidates) while this miss is still reading the old one
+        User stale = cache.get("alice.example", name -> {
+            cache.invalidate(name);
+            return user(name, "old hash");
+        });
+
+        assertEquals("old hash", stale.getPassword());
+        assertNull(cache.getIfPresent("alice.example"));
+        assertEquals("new hash", cache.get("alice.example", name -> user(name, "new hash")).getPassword());
+    }
+
+    @Test
+    void invalidateUserDropsEveryName() {
+        User alice = cache.get("alice.example", name -> user(name, "hash"));
+
+        cache.invalidateUser(alice.getId());
+
+        assertNull(cache.getIfPresent("alice.example"));
+    }
+
+    private static User user(String userName, String password) {
+        User user = new User(userName, password);
+        user.setId(new ObjectId());
+        user.setRoles(List.of("USER"));
+        return user;
+    }
+}